@@ -0,0 +1,102 @@
+package com.tcon.auth_user_service.benchmark;
+
+import com.tcon.auth_user_service.auth.security.JwtKeyRing;
+import com.tcon.auth_user_service.auth.security.JwtTokenProvider;
+import com.tcon.auth_user_service.auth.security.ParsedToken;
+import com.tcon.auth_user_service.auth.security.VerifiedTokenCache;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU cost of authenticating a bearer token.
+ *
+ * legacyFourParses reproduces the old filter: isTokenExpired, getUserId, getRole and
+ * getEmail each building a parser, stripping whitespace with a regex and verifying the HMAC.
+ * singleParse is JwtTokenProvider#parseToken with the verified-token cache disabled;
+ * cachedParse is the steady state for a replayed token (cache hit, no HMAC).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET =
+            "my-super-secret-jwt-key-for-educonnect-platform-minimum-256-bits-required";
+
+    private JwtTokenProvider provider;
+    private JwtTokenProvider cachingProvider;
+    private SecretKey key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = newProvider(false);
+        cachingProvider = newProvider(true);
+
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = provider.generateAccessToken("65f1c0ffee0000000000abcd", "bench@example.com", UserRole.STUDENT);
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole bh) {
+        bh.consume(legacyClaims(token).getExpiration().before(new Date()));
+        bh.consume(legacyClaims(token).getSubject());
+        bh.consume(UserRole.valueOf(legacyClaims(token).get("role", String.class)));
+        bh.consume(legacyClaims(token).get("email", String.class));
+    }
+
+    @Benchmark
+    public ParsedToken singleParse() {
+        return provider.parseToken(token);
+    }
+
+    @Benchmark
+    public ParsedToken cachedParse() {
+        return cachingProvider.parseToken(token);
+    }
+
+    private static JwtTokenProvider newProvider(boolean cacheEnabled) {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", cacheEnabled);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(cache, "maxTtl", Duration.ofMinutes(15));
+        cache.init();
+
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", JwtKeyRing.HS256);
+        keyRing.init();
+
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(cache, keyRing);
+        ReflectionTestUtils.setField(jwtTokenProvider, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "accessTokenValidityInMs", 86_400_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "refreshTokenValidityInMs", 604_800_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "includedClaimSettings", List.of());
+        jwtTokenProvider.init();
+        return jwtTokenProvider;
+    }
+
+    private Claims legacyClaims(String raw) {
+        String clean = raw.trim().replaceAll("\\s+", "");
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(clean)
+                .getPayload();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tcon.auth_user_service.benchmark;
+
+import com.tcon.auth_user_service.auth.service.LoginOutcome;
+import com.tcon.auth_user_service.exception.ErrorResponse;
+import com.tcon.auth_user_service.exception.InvalidCredentialsException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control-flow cost of rejecting a login, excluding the password check itself (which a wrong
+ * password pays either way). The failure is signalled stackDepth frames below the point where it
+ * is turned into a response, approximating a servlet / Spring MVC / proxy call stack.
+ *
+ * legacyBadCredentials and legacyTwoFactorRequired reproduce the old flow: an exception with a
+ * full stack trace, and for the 2FA case the stack trace rendered as the generic handler's
+ * log.error did. stacklessException is InvalidCredentialsException; outcome is LoginOutcome.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginFailureBenchmark {
+
+    @Param({"32", "128"})
+    private int stackDepth;
+
+    @Benchmark
+    public ErrorResponse legacyBadCredentials() {
+        try {
+            throwAt(stackDepth, false);
+            return null;
+        } catch (BadCredentialsException e) {
+            return errorResponse(401, "Invalid email or password");
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse legacyTwoFactorRequired(Blackhole bh) {
+        try {
+            throwIllegalStateAt(stackDepth);
+            return null;
+        } catch (IllegalStateException e) {
+            StringWriter logLine = new StringWriter();
+            e.printStackTrace(new PrintWriter(logLine));
+            bh.consume(logLine.toString());
+            return errorResponse(500, "An unexpected error occurred: " + e.getMessage());
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse stacklessException() {
+        try {
+            throwAt(stackDepth, true);
+            return null;
+        } catch (BadCredentialsException e) {
+            return errorResponse(401, "Invalid email or password");
+        }
+    }
+
+    @Benchmark
+    public ErrorResponse outcome() {
+        LoginOutcome outcome = returnAt(stackDepth);
+        return switch (outcome.getStatus()) {
+            case INVALID -> errorResponse(401, outcome.getMessage());
+            case LOCKED -> errorResponse(423, outcome.getMessage());
+            default -> null;
+        };
+    }
+
+    private static void throwAt(int depth, boolean stackless) {
+        if (depth > 0) {
+            throwAt(depth - 1, stackless);
+            return;
+        }
+        throw stackless
+                ? new InvalidCredentialsException("Invalid email or password")
+                : new BadCredentialsException("Invalid email or password");
+    }
+
+    private static void throwIllegalStateAt(int depth) {
+        if (depth > 0) {
+            throwIllegalStateAt(depth - 1);
+            return;
+        }
+        throw new IllegalStateException("TWO_FACTOR_REQUIRED");
+    }
+
+    private static LoginOutcome returnAt(int depth) {
+        return depth > 0 ? returnAt(depth - 1) : LoginOutcome.INVALID;
+    }
+
+    private static ErrorResponse errorResponse(int status, String message) {
+        return ErrorResponse.builder()
+                .status(status)
+                .message(message)
+                .error("Authentication Failed")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
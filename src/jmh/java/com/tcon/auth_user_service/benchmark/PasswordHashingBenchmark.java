@@ -0,0 +1,67 @@
+package com.tcon.auth_user_service.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes per second on a single core at each candidate work factor.
+ *
+ * Runs single-threaded, so the score is per core; multiply by the hashing pool size to
+ * estimate login capacity for a deployment. Use it to pick app.password-hashing.bcrypt.strength
+ * or argon2.iterations, e.g. {@code -Djmh.args="PasswordHashing -p strength=11,12"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct-Horse-battery-42";
+
+    @State(Scope.Benchmark)
+    public static class BCrypt {
+
+        @Param({"10", "11", "12", "13"})
+        private int strength;
+
+        private PasswordEncoder encoder;
+
+        @Setup
+        public void setUp() {
+            encoder = new BCryptPasswordEncoder(strength);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Argon2 {
+
+        @Param({"1", "2", "3"})
+        private int iterations;
+
+        @Param({"19456"})
+        private int memoryKib;
+
+        private PasswordEncoder encoder;
+
+        @Setup
+        public void setUp() {
+            encoder = new Argon2PasswordEncoder(16, 32, 1, memoryKib, iterations);
+        }
+    }
+
+    @Benchmark
+    public String bcryptHash(BCrypt state) {
+        return state.encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String argon2Hash(Argon2 state) {
+        return state.encoder.encode(PASSWORD);
+    }
+}
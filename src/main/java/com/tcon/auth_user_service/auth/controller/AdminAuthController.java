@@ -3,13 +3,22 @@ package com.tcon.auth_user_service.auth.controller;
 import com.tcon.auth_user_service.auth.dto.RegisterRequest;
 import com.tcon.auth_user_service.auth.dto.TokenResponse;
 import com.tcon.auth_user_service.auth.service.AuthService;
+import com.tcon.auth_user_service.auth.service.BulkUserImportService;
 import com.tcon.auth_user_service.user.service.AdminService;
 import com.tcon.auth_user_service.user.service.TeacherVerificationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
 @RestController
 @RequestMapping("/api/auth/admin")
 @RequiredArgsConstructor
@@ -18,6 +27,7 @@ public class AdminAuthController {
     private final AuthService authService;
     private final AdminService adminService;
     private final TeacherVerificationService verificationService;
+    private final BulkUserImportService bulkUserImportService;
 
 
     /**
@@ -29,5 +39,28 @@ public class AdminAuthController {
         return authService.registerAdmin(request);
     }
 
+    /**
+     * Admin-only bulk registration of students and parents.
+     * Body: NDJSON (one RegisterRequest per line) or CSV with a header row (Content-Type: text/csv).
+     * Response: one NDJSON result line per input row, streamed as chunks complete.
+     */
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping(value = "/users/import", consumes = {"application/x-ndjson", "text/csv"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        String format = "text".equals(contentType.getType()) && "csv".equals(contentType.getSubtype())
+                ? BulkUserImportService.FORMAT_CSV
+                : BulkUserImportService.FORMAT_NDJSON;
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            bulkUserImportService.importUsers(reader, format, response.getOutputStream());
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -3,14 +3,21 @@ package com.tcon.auth_user_service.auth.controller;
 import com.tcon.auth_user_service.auth.dto.*;
 import com.tcon.auth_user_service.auth.security.TwoFactorAuthService;
 import com.tcon.auth_user_service.auth.service.AuthService;
+import com.tcon.auth_user_service.auth.service.LoginOutcome;
 
+import com.tcon.auth_user_service.common.web.ClientIpResolver;
+import com.tcon.auth_user_service.exception.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -20,6 +27,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final TwoFactorAuthService twoFactorAuthService;
+    private final ClientIpResolver clientIpResolver;
 
     /**
      * Register user and return tokens + user profile
@@ -36,11 +44,38 @@ public class AuthController {
      * Login user and return tokens + user profile
      */
     @PostMapping("/login")
-    public ResponseEntity<TokenResponse> login(
-            @Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+
+        LoginOutcome outcome = authService.login(request, clientIpResolver.resolve(httpRequest));
+        return switch (outcome.getStatus()) {
+            case SUCCESS -> ResponseEntity.ok(outcome.getTokens());
+            case TWO_FACTOR_REQUIRED -> ResponseEntity.ok(LoginResponse.builder()
+                    .tokenType(null)
+                    .twoFactorRequired(true)
+                    .email(outcome.getEmail())
+                    .build());
+            case LOCKED -> loginRejected(HttpStatus.LOCKED, "Account Locked", outcome);
+            case INVALID -> loginRejected(HttpStatus.UNAUTHORIZED, "Authentication Failed", outcome);
+        };
+    }
 
-        TokenResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    private ResponseEntity<ErrorResponse> loginRejected(HttpStatus status, String error, LoginOutcome outcome) {
+        ErrorResponse body = ErrorResponse.builder()
+                .status(status.value())
+                .message(outcome.getMessage())
+                .error(error)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (outcome.getLockedUntil() != null) {
+            long retryAfterSeconds = Math.max(1,
+                    Duration.between(LocalDateTime.now(), outcome.getLockedUntil()).toSeconds());
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return response.body(body);
     }
 
     /**
@@ -104,6 +139,17 @@ public class AuthController {
         return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
     }
 
+    /**
+     * Verify email using the token from the verification email
+     */
+    @PostMapping("/email/verify")
+    public ResponseEntity<Map<String, String>> verifyEmail(
+            @Valid @RequestBody EmailVerificationRequest request) {
+
+        authService.verifyEmail(request);
+        return ResponseEntity.ok(Map.of("message", "Email verified successfully"));
+    }
+
     /**
      * Refresh access token using refresh token
      */
@@ -116,6 +162,32 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Log out the device the refresh token belongs to
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestBody Map<String, String> request,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7).trim()
+                : null;
+        authService.logout(request.get("refreshToken"), accessToken);
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
+    /**
+     * Log out every device of the logged-in user
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Map<String, String>> logoutAll(
+            @AuthenticationPrincipal String userId) {
+
+        authService.logoutAll(userId);
+        return ResponseEntity.ok(Map.of("message", "Logged out from all devices"));
+    }
+
     /**
      * Health check
      */
@@ -0,0 +1,36 @@
+package com.tcon.auth_user_service.auth.controller;
+
+import com.tcon.auth_user_service.auth.security.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the public token-signing keys so the gateway and other services can
+ * verify access tokens locally instead of calling /api/auth/validate-token.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${jwt.jwks.cache-max-age:PT5M}")
+    private Duration cacheMaxAge;
+
+    /**
+     * JWK Set (RFC 7517). Empty in HS256 mode - the shared secret is never published.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(cacheMaxAge).cachePublic())
+                .body(Map.of("keys", keyRing.getPublicJwks()));
+    }
+}
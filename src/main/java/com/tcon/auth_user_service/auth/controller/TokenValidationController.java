@@ -1,13 +1,20 @@
 package com.tcon.auth_user_service.auth.controller;
 
+import com.tcon.auth_user_service.auth.dto.BatchTokenValidationRequest;
+import com.tcon.auth_user_service.auth.dto.BatchTokenValidationResponse;
 import com.tcon.auth_user_service.auth.dto.TokenValidationResponse;
 import com.tcon.auth_user_service.auth.security.JwtTokenProvider;
+import com.tcon.auth_user_service.auth.security.ParsedToken;
+import com.tcon.auth_user_service.auth.security.TokenRevocationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/auth")
@@ -15,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class TokenValidationController {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
 
     @GetMapping("/validate-token")
     public ResponseEntity<TokenValidationResponse> validateToken(
@@ -25,32 +33,82 @@ public class TokenValidationController {
                     TokenValidationResponse.builder().valid(false).build());
         }
 
-        String token = authHeader.substring(7).trim().replaceAll("\\s+", "");
+        TokenValidationResponse result = validate(authHeader.substring(7));
+
+        if (!result.isValid()) {
+            return ResponseEntity.status(401).body(result);
+        }
+
+        log.info("Token valid for userId={} role={}", result.getUserId(), result.getRole());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Validate many tokens in one call (gateway fan-outs, batch jobs).
+     * Always 200: each token gets its own result, in request order.
+     */
+    @PostMapping("/validate-tokens")
+    public ResponseEntity<BatchTokenValidationResponse> validateTokens(
+            @Valid @RequestBody BatchTokenValidationRequest request) {
+
+        List<TokenValidationResponse> results = request.getTokens().stream()
+                .map(this::validate)
+                .toList();
+
+        int validCount = (int) results.stream().filter(TokenValidationResponse::isValid).count();
+        log.info("Batch token validation: {}/{} valid", validCount, results.size());
+
+        return ResponseEntity.ok(BatchTokenValidationResponse.builder()
+                .results(results)
+                .validCount(validCount)
+                .build());
+    }
+
+    private TokenValidationResponse validate(String token) {
+        if (!StringUtils.hasText(token)) {
+            return invalid("Token is empty");
+        }
 
         try {
-            if (jwtTokenProvider.isTokenExpired(token)) {
+            ParsedToken parsed = jwtTokenProvider.parseToken(token.trim());
+
+            if (parsed.isExpired()) {
                 log.warn("Token is expired");
-                return ResponseEntity.status(401).body(
-                        TokenValidationResponse.builder().valid(false).build());
+                return invalid("Token expired");
             }
 
-            String userId = jwtTokenProvider.getUserId(token);
-            String email  = jwtTokenProvider.getEmail(token);
-            String role   = jwtTokenProvider.getRole(token).name(); // "ADMIN","TEACHER" etc.
+            if (parsed.getRole() == null) {
+                return invalid("Token carries no role claim");
+            }
 
-            log.info("Token valid for userId={} role={}", userId, role);
+            // Same check as JwtAuthenticationFilter: logout, suspension and password reset apply downstream too
+            if (tokenRevocationService.isRevoked(parsed)) {
+                log.warn("Revoked token presented for validation, userId={}", parsed.getUserId());
+                return invalid("Token revoked");
+            }
 
-            return ResponseEntity.ok(TokenValidationResponse.builder()
+            return TokenValidationResponse.builder()
                     .valid(true)
-                    .userId(userId)
-                    .email(email)
-                    .role(role)
-                    .build());
+                    .userId(parsed.getUserId())
+                    .email(parsed.getEmail())
+                    .role(parsed.getRole().name()) // "ADMIN","TEACHER" etc.
+                    .status(parsed.getStatus() != null ? parsed.getStatus().name() : null)
+                    .emailVerified(parsed.getEmailVerified())
+                    .name(parsed.getDisplayName())
+                    .permissions(parsed.getPermissions())
+                    .profileVersion(parsed.getProfileVersion())
+                    .build();
 
         } catch (Exception e) {
             log.error("Token validation error: {}", e.getMessage());
-            return ResponseEntity.status(401).body(
-                    TokenValidationResponse.builder().valid(false).build());
+            return invalid(e.getMessage());
         }
     }
+
+    private TokenValidationResponse invalid(String error) {
+        return TokenValidationResponse.builder()
+                .valid(false)
+                .error(error)
+                .build();
+    }
 }
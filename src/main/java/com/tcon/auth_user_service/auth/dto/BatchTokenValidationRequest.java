@@ -0,0 +1,21 @@
+package com.tcon.auth_user_service.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 500, message = "At most 500 tokens per request")
+    private List<String> tokens;
+}
@@ -0,0 +1,22 @@
+package com.tcon.auth_user_service.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationResponse {
+
+    /**
+     * One entry per requested token, in request order
+     */
+    private List<TokenValidationResponse> results;
+
+    private int validCount;
+}
@@ -0,0 +1,17 @@
+package com.tcon.auth_user_service.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailVerificationRequest {
+
+    @NotBlank(message = "Token is required")
+    private String token;
+}
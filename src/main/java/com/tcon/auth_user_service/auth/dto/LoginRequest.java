@@ -21,5 +21,10 @@ public class LoginRequest {
 
     @NotBlank(message = "Password is required")
     private String password;
+
+    /**
+     * Optional stable client/device id; one refresh session is kept per device
+     */
+    private String deviceId;
 }
 
@@ -1,7 +1,10 @@
 package com.tcon.auth_user_service.auth.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -11,4 +14,23 @@ public class TokenValidationResponse {
     private String email;
     private String role;      // "ADMIN", "TEACHER", "STUDENT", "PARENT"
     private boolean valid;
+
+    // Optional claims, present when the token embeds them (jwt.claims.include)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String status;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean emailVerified;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String name;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> permissions;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long profileVersion;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;     // why an invalid token was rejected, e.g. "Token expired"
 }
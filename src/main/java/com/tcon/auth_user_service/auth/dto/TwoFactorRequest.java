@@ -22,5 +22,10 @@ public class TwoFactorRequest {
     @NotBlank(message = "Verification code is required")
     @Pattern(regexp = "^\\d{6}$", message = "Code must be 6 digits")
     private String code;
+
+    /**
+     * Optional stable client/device id; one refresh session is kept per device
+     */
+    private String deviceId;
 }
 
@@ -0,0 +1,27 @@
+package com.tcon.auth_user_service.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the bulk import response stream
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private long row;         // 1-based data row (CSV header not counted)
+    private String email;
+    private String status;    // CREATED | FAILED
+    private String userId;
+    private String error;
+}
@@ -0,0 +1,36 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Everything {@link JwtTokenProvider#generateAccessToken(AccessTokenClaims)} may embed.
+ * Which of the optional claims actually end up in the token is decided by {@code jwt.claims.include}.
+ */
+@Value
+@Builder
+public class AccessTokenClaims {
+
+    String userId;
+    String email;
+    UserRole role;
+
+    UserStatus status;
+    Boolean emailVerified;
+    String displayName;
+
+    /**
+     * Admin permissions granted through the user's AdminRole; empty for other roles
+     */
+    List<String> permissions;
+
+    /**
+     * Changes whenever the profile does (User.updatedAt, epoch seconds), so consumers can tell
+     * whether claims they cached from an older token are stale
+     */
+    Long profileVersion;
+}
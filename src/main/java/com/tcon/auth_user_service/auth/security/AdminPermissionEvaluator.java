@@ -0,0 +1,62 @@
+package com.tcon.auth_user_service.auth.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+
+/**
+ * Backs {@code @PreAuthorize("hasPermission(null, 'SOME_PERMISSION')")} with the compiled
+ * bitsets of {@link PermissionRegistry}. Permissions are granted per role, so the target object
+ * is not consulted.
+ *
+ * The registry is resolved on first use: method security is configured before ordinary beans
+ * exist, and pulling the registry (and its repository) in that early would keep them from
+ * being proxied.
+ */
+public class AdminPermissionEvaluator implements PermissionEvaluator {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final ObjectProvider<PermissionRegistry> permissionRegistryProvider;
+    private volatile PermissionRegistry permissionRegistry;
+
+    public AdminPermissionEvaluator(ObjectProvider<PermissionRegistry> permissionRegistryProvider) {
+        this.permissionRegistryProvider = permissionRegistryProvider;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        if (authentication == null || permission == null) {
+            return false;
+        }
+
+        PermissionRegistry registry = registry();
+        String required = permission.toString();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)
+                    && registry.hasPermission(name.substring(ROLE_PREFIX.length()), required)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType,
+                                 Object permission) {
+        return hasPermission(authentication, null, permission);
+    }
+
+    private PermissionRegistry registry() {
+        PermissionRegistry registry = permissionRegistry;
+        if (registry == null) {
+            registry = permissionRegistryProvider.getObject();
+            permissionRegistry = registry;
+        }
+        return registry;
+    }
+}
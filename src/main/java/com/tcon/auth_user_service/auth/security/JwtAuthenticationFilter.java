@@ -14,9 +14,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
-import com.tcon.auth_user_service.user.entity.User;
 import com.tcon.auth_user_service.user.entity.UserStatus;
-import com.tcon.auth_user_service.user.repository.UserRepository;
 
 
 import java.io.IOException;
@@ -28,7 +26,8 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -40,22 +39,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (StringUtils.hasText(token)) {
                 log.debug("🔍 JWT token found, validating...");
 
-                if (!jwtTokenProvider.isTokenExpired(token)) {
-                    String userId = jwtTokenProvider.getUserId(token);
+                ParsedToken parsed = parse(token);
 
+                if (parsed != null) {
+                    String userId = parsed.getUserId();
+
+                    // Bloom filter first: a token that was never revoked costs no network call
+                    if (tokenRevocationService.isRevoked(parsed)) {
+                        log.warn("Blocked revoked token for user: {}", userId);
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.getWriter().write("Token has been revoked");
+                        return;
+                    }
 
 // 🔥 ADD THIS BLOCK
-                    User user = userRepository.findById(userId).orElse(null);
+                    UserStatus status = userStatusCache.getStatus(userId);
 
-                    if (user != null && user.getStatus() != UserStatus.ACTIVE) {
-                        log.warn("Blocked inactive user: {}", user.getEmail());
+                    if (status != null && status != UserStatus.ACTIVE) {
+                        log.warn("Blocked inactive user: {}", parsed.getEmail());
                         response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                         response.getWriter().write("Account is suspended or inactive");
                         return;
                     }
 
-                    String role = jwtTokenProvider.getRole(token).name();
-                    String email = jwtTokenProvider.getEmail(token);
+                    if (parsed.getRole() == null) {
+                        throw new IllegalArgumentException("Token carries no role claim");
+                    }
+
+                    String role = parsed.getRole().name();
+                    String email = parsed.getEmail();
 
                     log.info("✅ JWT valid for user: {} ({}), role: {}", email, userId, role);
 
@@ -87,12 +99,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Single verification per request; expired and invalid tokens fall through
+     * unauthenticated, exactly as the old isTokenExpired() check did.
+     */
+    private ParsedToken parse(String token) {
+        try {
+            ParsedToken parsed = jwtTokenProvider.parseToken(token);
+            return parsed.isExpired() ? null : parsed;
+        } catch (IllegalArgumentException e) {
+            log.error("Error checking token expiration: {}", e.getMessage());
+            return null;
+        }
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            // Extract token and remove ALL whitespace (including line breaks, spaces, tabs)
-            String token = bearerToken.substring(7).trim().replaceAll("\\s+", "");
+            // Whitespace inside the token is stripped by JwtTokenProvider while parsing
+            String token = bearerToken.substring(7).trim();
             log.debug("Extracted JWT token (length: {})", token.length());
             return token;
         }
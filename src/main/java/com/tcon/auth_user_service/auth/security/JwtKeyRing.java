@@ -0,0 +1,170 @@
+package com.tcon.auth_user_service.auth.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Asymmetric signing keys, indexed by {@code kid}.
+ *
+ * Keys come from {@code jwt.signing.jwks} (a JWK Set JSON document) and
+ * {@code jwt.signing.active-key-id} selects the one used for signing. Every other key in the
+ * set stays valid for verification, which is how rotation works:
+ * add the new key, wait for the JWKS cache max-age, switch active-key-id, and drop the
+ * old key once the longest-lived token signed with it has expired.
+ *
+ * Unused (empty) in the default HS256 mode.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String algorithm;
+
+    @Value("${jwt.signing.jwks:}")
+    private String jwks;
+
+    @Value("${jwt.signing.active-key-id:}")
+    private String activeKeyId;
+
+    private SignatureAlgorithm signatureAlgorithm;
+    private PrivateKey signingKey;
+    private Map<String, PublicKey> verificationKeys = Collections.emptyMap();
+    private List<Map<String, ?>> publicJwks = Collections.emptyList();
+
+    @PostConstruct
+    public void init() {
+        if (HS256.equalsIgnoreCase(algorithm)) {
+            log.info("✅ JWT signing mode: HS256 (shared secret, no published keys)");
+            return;
+        }
+
+        if (ES256.equalsIgnoreCase(algorithm)) {
+            signatureAlgorithm = Jwts.SIG.ES256;
+        } else if (EDDSA.equalsIgnoreCase(algorithm)) {
+            signatureAlgorithm = Jwts.SIG.EdDSA;
+        } else {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm
+                    + ". Allowed: " + HS256 + ", " + ES256 + ", " + EDDSA);
+        }
+
+        if (StringUtils.hasText(jwks)) {
+            load(Jwks.setParser().build().parse(jwks));
+        } else {
+            generateEphemeralKey();
+        }
+
+        log.info("✅ JWT signing mode: {} (active kid: {}, verification keys: {})",
+                algorithm, activeKeyId, verificationKeys.keySet());
+    }
+
+    public boolean isAsymmetric() {
+        return signatureAlgorithm != null;
+    }
+
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    public PublicKey getVerificationKey(String keyId) {
+        return keyId != null ? verificationKeys.get(keyId) : null;
+    }
+
+    /**
+     * Public half of every key in the ring, in JWK form
+     */
+    public List<Map<String, ?>> getPublicJwks() {
+        return publicJwks;
+    }
+
+    private void load(JwkSet set) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        List<Map<String, ?>> published = new ArrayList<>();
+
+        for (Jwk<?> jwk : set.getKeys()) {
+            String kid = jwk.getId();
+            if (!StringUtils.hasText(kid)) {
+                throw new IllegalStateException("Every key in jwt.signing.jwks needs a 'kid'");
+            }
+
+            PublicJwk<?> publicJwk;
+            if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                publicJwk = privateJwk.toPublicJwk();
+                if (kid.equals(activeKeyId)) {
+                    signingKey = (PrivateKey) privateJwk.toKey();
+                }
+            } else if (jwk instanceof PublicJwk<?> pub) {
+                publicJwk = pub;
+            } else {
+                throw new IllegalStateException("Key " + kid + " in jwt.signing.jwks is not an asymmetric key");
+            }
+
+            keys.put(kid, (PublicKey) publicJwk.toKey());
+            published.add(toPublished(kid, publicJwk.toKey()));
+        }
+
+        if (signingKey == null) {
+            throw new IllegalStateException("jwt.signing.active-key-id '" + activeKeyId
+                    + "' does not match any private key in jwt.signing.jwks");
+        }
+
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+        this.publicJwks = Collections.unmodifiableList(published);
+    }
+
+    private void generateEphemeralKey() {
+        log.warn("⚠️ jwt.signing.jwks not set - generated an ephemeral {} key. "
+                + "Tokens will not survive a restart or validate on other replicas.", algorithm);
+
+        KeyPair keyPair = signatureAlgorithm == Jwts.SIG.ES256
+                ? Jwts.SIG.ES256.keyPair().build()
+                : Jwks.CRV.Ed25519.keyPair().build();
+
+        activeKeyId = UUID.randomUUID().toString();
+        signingKey = keyPair.getPrivate();
+        verificationKeys = Map.of(activeKeyId, keyPair.getPublic());
+        publicJwks = List.of(toPublished(activeKeyId, keyPair.getPublic()));
+    }
+
+    private Map<String, ?> toPublished(String kid, java.security.Key publicKey) {
+        PublicJwk<?> jwk = Jwks.builder()
+                .key((PublicKey) publicKey)
+                .id(kid)
+                .algorithm(signatureAlgorithm.getId())
+                .publicKeyUse("sig")
+                .build();
+        return Collections.unmodifiableMap(new LinkedHashMap<>(jwk));
+    }
+}
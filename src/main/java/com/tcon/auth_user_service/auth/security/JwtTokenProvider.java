@@ -4,20 +4,48 @@ import com.tcon.auth_user_service.user.entity.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    /*
+     * Optional access-token claims, kept to two-to-four letter names so the header stays small.
+     * Enabled individually through jwt.claims.include.
+     */
+    public static final String CLAIM_STATUS = "st";
+    public static final String CLAIM_EMAIL_VERIFIED = "ev";
+    public static final String CLAIM_NAME = "nm";
+    public static final String CLAIM_PERMISSIONS = "perm";
+    public static final String CLAIM_PROFILE_VERSION = "pv";
+
+    private static final Map<String, String> CLAIMS_BY_SETTING = Map.of(
+            "status", CLAIM_STATUS,
+            "email-verified", CLAIM_EMAIL_VERIFIED,
+            "name", CLAIM_NAME,
+            "permissions", CLAIM_PERMISSIONS,
+            "profile-version", CLAIM_PROFILE_VERSION);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtKeyRing keyRing;
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -27,41 +55,138 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshTokenValidityInMs;
 
+    @Value("${jwt.claims.include:}")
+    private List<String> includedClaimSettings;
+
+    @Value("${jwt.claims.max-name-length:64}")
+    private int maxNameLength;
+
+    /**
+     * Longest comma-joined permission list embedded; longer lists are left out of the token
+     * (consumers then look permissions up) instead of growing every request header
+     */
+    @Value("${jwt.claims.max-permissions-length:512}")
+    private int maxPermissionsLength;
+
+    /**
+     * Migration window after switching from HS256 to ES256/EdDSA: keeps accepting kid-less HS256
+     * tokens signed with the shared secret until they have expired (one refresh-token lifetime).
+     * Ignored in HS256 mode; leave it off otherwise, or anyone holding the secret can still mint tokens.
+     */
+    @Value("${jwt.accept-legacy-hs256:false}")
+    private boolean acceptLegacyHs256;
+
+    private Set<String> includedClaims;
+
     private SecretKey key;
 
+    /**
+     * Built once: JwtParser is immutable and thread-safe, so every request shares it
+     */
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        log.info("✅ JwtTokenProvider initialized with secret (length: {})", secret.length());
+        this.includedClaims = new HashSet<>();
+        for (String setting : includedClaimSettings) {
+            String claim = CLAIMS_BY_SETTING.get(setting.trim());
+            if (claim == null) {
+                throw new IllegalStateException("Unknown jwt.claims.include entry: " + setting
+                        + ". Allowed: " + CLAIMS_BY_SETTING.keySet());
+            }
+            includedClaims.add(claim);
+        }
+        this.parser = Jwts.parser()
+                .keyLocator(new SigningKeyLocator())
+                .build();
+        log.info("✅ JwtTokenProvider initialized with secret (length: {}), optional claims: {}, legacy HS256: {}",
+                secret.length(), includedClaims, !keyRing.isAsymmetric() || acceptLegacyHs256);
     }
 
     public String generateAccessToken(String userId, String email, UserRole role) {
+        return generateAccessToken(AccessTokenClaims.builder()
+                .userId(userId)
+                .email(email)
+                .role(role)
+                .build());
+    }
+
+    /**
+     * Access token with the optional claims enabled in {@code jwt.claims.include}; claims whose
+     * value is unknown are omitted, so consumers treat a missing claim as "not embedded"
+     */
+    public String generateAccessToken(AccessTokenClaims source) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + accessTokenValidityInMs);
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put("email", email);
-        claims.put("role", role.name());
+        claims.put("email", source.getEmail());
+        claims.put("role", source.getRole().name());
         claims.put("type", "access");
 
-        return Jwts.builder()
-                .subject(userId)
+        if (source.getStatus() != null && includedClaims.contains(CLAIM_STATUS)) {
+            claims.put(CLAIM_STATUS, source.getStatus().name());
+        }
+        if (source.getEmailVerified() != null && includedClaims.contains(CLAIM_EMAIL_VERIFIED)) {
+            claims.put(CLAIM_EMAIL_VERIFIED, source.getEmailVerified());
+        }
+        if (StringUtils.hasText(source.getDisplayName()) && includedClaims.contains(CLAIM_NAME)) {
+            String name = source.getDisplayName().trim();
+            claims.put(CLAIM_NAME, name.length() > maxNameLength ? name.substring(0, maxNameLength) : name);
+        }
+        if (source.getPermissions() != null && !source.getPermissions().isEmpty()
+                && includedClaims.contains(CLAIM_PERMISSIONS)) {
+            // One comma-joined string instead of a JSON array: no per-item quotes
+            String permissions = String.join(",", source.getPermissions());
+            if (permissions.length() <= maxPermissionsLength) {
+                claims.put(CLAIM_PERMISSIONS, permissions);
+            } else {
+                log.debug("Permissions of user {} not embedded: {} chars over the {} limit",
+                        source.getUserId(), permissions.length(), maxPermissionsLength);
+            }
+        }
+        if (source.getProfileVersion() != null && includedClaims.contains(CLAIM_PROFILE_VERSION)) {
+            claims.put(CLAIM_PROFILE_VERSION, source.getProfileVersion());
+        }
+
+        return sign(Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(source.getUserId())
                 .claims(claims)
                 .issuedAt(now)
-                .expiration(expiry)
-                .signWith(key, Jwts.SIG.HS256)
-                .compact();
+                .expiration(expiry));
     }
 
-    public String generateRefreshToken(String userId) {
+    /**
+     * @param deviceId the refresh session this token belongs to
+     * @param rotation the session's rotation counter; the token is accepted only while it is current
+     */
+    public String generateRefreshToken(String userId, String deviceId, long rotation) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + refreshTokenValidityInMs);
 
-        return Jwts.builder()
+        return sign(Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId)
                 .issuedAt(now)
                 .expiration(expiry)
                 .claim("type", "refresh")
+                .claim("did", deviceId)
+                .claim("rot", rotation));
+    }
+
+    /**
+     * HS256 with the shared secret, or the key ring's active key (kid in the header)
+     */
+    private String sign(JwtBuilder builder) {
+        if (keyRing.isAsymmetric()) {
+            return builder
+                    .header().keyId(keyRing.getActiveKeyId()).and()
+                    .signWith(keyRing.getSigningKey(), keyRing.getSignatureAlgorithm())
+                    .compact();
+        }
+        return builder
                 .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
@@ -71,10 +196,7 @@ public class JwtTokenProvider {
         String cleanToken = cleanToken(token);
 
         try {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(cleanToken);
+            return parser.parseSignedClaims(cleanToken);
         } catch (ExpiredJwtException ex) {
             log.error("JWT token expired: {}", ex.getMessage());
             throw new IllegalArgumentException("Token expired", ex);
@@ -84,11 +206,29 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Verify the token once and return every claim the request pipeline needs.
+     * Prefer this over the individual getters. Tokens seen before are served from
+     * {@link VerifiedTokenCache} without re-verifying the signature.
+     *
+     * @throws IllegalArgumentException if the token is expired, malformed or badly signed
+     */
+    public ParsedToken parseToken(String token) {
+        String cleanToken = cleanToken(token);
+
+        ParsedToken cached = verifiedTokenCache.get(cleanToken);
+        if (cached != null) {
+            return cached;
+        }
+
+        ParsedToken parsed = ParsedToken.from(validateToken(cleanToken).getPayload());
+        verifiedTokenCache.put(cleanToken, parsed);
+        return parsed;
+    }
+
     public boolean isTokenExpired(String token) {
         try {
-            String cleanToken = cleanToken(token);
-            Date expiration = validateToken(cleanToken).getPayload().getExpiration();
-            return expiration.before(new Date());
+            return parseToken(token).isExpired();
         } catch (Exception e) {
             log.error("Error checking token expiration: {}", e.getMessage());
             return true;
@@ -96,19 +236,15 @@ public class JwtTokenProvider {
     }
 
     public String getUserId(String token) {
-        String cleanToken = cleanToken(token);
-        return validateToken(cleanToken).getPayload().getSubject();
+        return parseToken(token).getUserId();
     }
 
     public String getEmail(String token) {
-        String cleanToken = cleanToken(token);
-        return validateToken(cleanToken).getPayload().get("email", String.class);
+        return parseToken(token).getEmail();
     }
 
     public UserRole getRole(String token) {
-        String cleanToken = cleanToken(token);
-        String role = validateToken(cleanToken).getPayload().get("role", String.class);
-        return UserRole.valueOf(role);
+        return parseToken(token).getRole();
     }
 
     public long getAccessTokenExpiry() {
@@ -126,14 +262,59 @@ public class JwtTokenProvider {
         if (token == null) {
             return null;
         }
+        // Fast path: well-formed tokens never contain whitespace, so skip the copy
+        if (!containsWhitespace(token)) {
+            return token;
+        }
+
         // Remove all whitespace characters (spaces, tabs, newlines, etc.)
-        String cleaned = token.trim().replaceAll("\\s+", "");
+        StringBuilder cleaned = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                cleaned.append(c);
+            }
+        }
+
+        log.warn("⚠️ Token contained whitespace! Cleaned from {} to {} chars",
+                token.length(), cleaned.length());
+
+        return cleaned.toString();
+    }
 
-        if (!cleaned.equals(token)) {
-            log.warn("⚠️ Token contained whitespace! Cleaned from {} to {} chars",
-                    token.length(), cleaned.length());
+    private static boolean containsWhitespace(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isWhitespace(token.charAt(i))) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Picks the verification key from the token header. Tokens with a kid are checked
+     * against the key ring; HS256 tokens without one are checked against the shared secret in
+     * the default mode, and in asymmetric mode only while jwt.accept-legacy-hs256 is on.
+     */
+    private class SigningKeyLocator extends LocatorAdapter<Key> {
 
-        return cleaned;
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            if (keyId != null) {
+                Key publicKey = keyRing.getVerificationKey(keyId);
+                if (publicKey == null) {
+                    throw new MalformedJwtException("Unknown signing key id: " + keyId);
+                }
+                return publicKey;
+            }
+
+            if (JwtKeyRing.HS256.equals(header.getAlgorithm())
+                    && (!keyRing.isAsymmetric() || acceptLegacyHs256)) {
+                return key;
+            }
+
+            throw new MalformedJwtException("Token has no key id for algorithm " + header.getAlgorithm());
+        }
     }
 }
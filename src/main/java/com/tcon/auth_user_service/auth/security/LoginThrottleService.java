@@ -0,0 +1,159 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.exception.RateLimitExceededException;
+import com.tcon.auth_user_service.user.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Sliding-window failed-login counters per account and per source IP, kept in Redis.
+ *
+ * Throttled attempts are rejected before the user lookup or BCrypt run, and failures only
+ * touch Redis; Mongo is written once, when an account crosses the limit and gets locked.
+ * If Redis is unavailable the caller falls back to counting on the User document.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginThrottleService {
+
+    private static final String ACCOUNT_WINDOW_PREFIX = "login:fail:acct:";
+    private static final String IP_WINDOW_PREFIX = "login:fail:ip:";
+    private static final String ACCOUNT_LOCK_PREFIX = "login:lock:";
+
+    public enum FailureOutcome {
+        /** Counted in Redis, account still below the limit */
+        COUNTED,
+        /** This failure locked the account; persist the lock */
+        LOCKED,
+        /** Not tracked in Redis (disabled or unavailable); count on the User document instead */
+        NOT_TRACKED
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.login-throttle.window:PT15M}")
+    private Duration window;
+
+    @Value("${app.security.login-throttle.max-ip-failures:50}")
+    private int maxIpFailures;
+
+    private RedisScript<Long> checkScript;
+    private RedisScript<List> recordFailureScript;
+
+    @PostConstruct
+    public void init() {
+        this.checkScript = RedisScript.of(new ClassPathResource("scripts/login-throttle-check.lua"), Long.class);
+        this.recordFailureScript = RedisScript.of(
+                new ClassPathResource("scripts/login-throttle-record-failure.lua"), List.class);
+
+        log.info("✅ LoginThrottleService initialized (enabled: {}, window: {}, maxAccountFailures: {}, maxIpFailures: {})",
+                enabled, window, User.MAX_FAILED_ATTEMPTS, maxIpFailures);
+    }
+
+    /**
+     * @throws RateLimitExceededException if the account is locked or the source IP is over its limit
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+
+        Long retryAfterMs;
+        try {
+            retryAfterMs = stringRedisTemplate.execute(checkScript, keys(email, clientIp),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(window.toMillis()),
+                    String.valueOf(maxIpFailures));
+        } catch (Exception e) {
+            log.warn("⚠️ Login throttle check skipped, Redis unavailable: {}", e.getMessage());
+            return;
+        }
+
+        if (retryAfterMs != null && retryAfterMs > 0) {
+            meterRegistry.counter("login.throttle.rejected").increment();
+            throw new RateLimitExceededException(
+                    "Too many failed login attempts. Please try again later.",
+                    Math.max(1, Duration.ofMillis(retryAfterMs).toSeconds()));
+        }
+    }
+
+    public FailureOutcome recordFailure(String email, String clientIp) {
+        if (!enabled) {
+            return FailureOutcome.NOT_TRACKED;
+        }
+
+        List<?> result;
+        try {
+            result = stringRedisTemplate.execute(recordFailureScript, keys(email, clientIp),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(window.toMillis()),
+                    String.valueOf(User.MAX_FAILED_ATTEMPTS),
+                    String.valueOf(User.LOCK_DURATION.toMillis()),
+                    UUID.randomUUID().toString());
+        } catch (Exception e) {
+            log.warn("⚠️ Login failure not recorded in Redis: {}", e.getMessage());
+            return FailureOutcome.NOT_TRACKED;
+        }
+
+        if (result != null && result.size() == 2 && ((Number) result.get(1)).longValue() == 1) {
+            log.warn("🔒 Account locked after {} failed login attempts: {}", result.get(0), email);
+            return FailureOutcome.LOCKED;
+        }
+        return FailureOutcome.COUNTED;
+    }
+
+    public void recordSuccess(String email) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stringRedisTemplate.delete(ACCOUNT_WINDOW_PREFIX + normalize(email));
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to reset login failure window: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the account's failure window and any Redis lock, e.g. when an admin re-activates it
+     */
+    public void clearAccount(String email) {
+        if (!enabled) {
+            return;
+        }
+        String account = normalize(email);
+        try {
+            stringRedisTemplate.delete(List.of(ACCOUNT_WINDOW_PREFIX + account, ACCOUNT_LOCK_PREFIX + account));
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to clear login throttle state: {}", e.getMessage());
+        }
+    }
+
+    private static List<String> keys(String email, String clientIp) {
+        String account = normalize(email);
+        return List.of(
+                ACCOUNT_WINDOW_PREFIX + account,
+                IP_WINDOW_PREFIX + clientIp,
+                ACCOUNT_LOCK_PREFIX + account);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
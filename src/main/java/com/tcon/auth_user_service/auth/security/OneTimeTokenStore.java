@@ -0,0 +1,127 @@
+package com.tcon.auth_user_service.auth.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Single-use tokens (password reset, email verification) kept in Redis.
+ *
+ * Only the SHA-256 of a token is stored, as {@code ott:<purpose>:<digest> -> userId} with the
+ * token's TTL, so lookups are O(1) and expired tokens disappear on their own. A per-user pointer
+ * makes issuing a new token revoke the previous one of the same purpose.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OneTimeTokenStore {
+
+    public enum Purpose {
+        PASSWORD_RESET("reset"),
+        EMAIL_VERIFICATION("verify");
+
+        private final String keyPart;
+
+        Purpose(String keyPart) {
+            this.keyPart = keyPart;
+        }
+    }
+
+    private static final String KEY_PREFIX = "ott:";
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * @return the raw token to hand to the user; only its digest is stored
+     */
+    public String issue(Purpose purpose, String userId, Duration ttl) {
+        String token = newToken();
+        String tokenKey = tokenKey(purpose, TokenDigests.sha256(token));
+
+        String previousKey = stringRedisTemplate.opsForValue().getAndSet(userKey(purpose, userId), tokenKey);
+        stringRedisTemplate.expire(userKey(purpose, userId), ttl);
+        if (previousKey != null) {
+            stringRedisTemplate.delete(previousKey);
+        }
+        stringRedisTemplate.opsForValue().set(tokenKey, userId, ttl);
+        return token;
+    }
+
+    /**
+     * Issues tokens for many users in one pipelined round-trip (no previous-token revocation,
+     * intended for freshly created accounts)
+     *
+     * @return raw token by user id
+     */
+    public Map<String, String> issueAll(Purpose purpose, List<String> userIds, Duration ttl) {
+        Map<String, String> tokens = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            tokens.put(userId, newToken());
+        }
+
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                tokens.forEach((userId, token) -> {
+                    String tokenKey = tokenKey(purpose, TokenDigests.sha256(token));
+                    operations.opsForValue().set(tokenKey, userId, ttl);
+                    operations.opsForValue().set(userKey(purpose, userId), tokenKey, ttl);
+                });
+                return null;
+            }
+        });
+        return tokens;
+    }
+
+    /**
+     * Looks a token up without using it, e.g. to reject bad tokens before expensive work
+     *
+     * @return the user id the token was issued to, if it exists and has not expired
+     */
+    public Optional<String> peek(Purpose purpose, String token) {
+        return Optional.ofNullable(
+                stringRedisTemplate.opsForValue().get(tokenKey(purpose, TokenDigests.sha256(token))));
+    }
+
+    /**
+     * Atomically uses the token up (GETDEL), so it can succeed at most once
+     *
+     * @return the user id the token was issued to, if it was still valid
+     */
+    public Optional<String> consume(Purpose purpose, String token) {
+        String tokenKey = tokenKey(purpose, TokenDigests.sha256(token));
+        String userId = stringRedisTemplate.opsForValue().getAndDelete(tokenKey);
+        if (userId != null) {
+            stringRedisTemplate.delete(userKey(purpose, userId));
+        }
+        return Optional.ofNullable(userId);
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String tokenKey(Purpose purpose, String digest) {
+        return KEY_PREFIX + purpose.keyPart + ":" + digest;
+    }
+
+    private static String userKey(Purpose purpose, String userId) {
+        return KEY_PREFIX + purpose.keyPart + ":user:" + userId;
+    }
+}
@@ -0,0 +1,83 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been verified.
+ * Produced once per request by {@link JwtTokenProvider#parseToken(String)}.
+ */
+@Value
+@Builder
+public class ParsedToken {
+
+    String tokenId;
+    String userId;
+    String email;
+    UserRole role;
+    String type;
+
+    /**
+     * Optional claims (see {@code jwt.claims.include}); null when not embedded
+     */
+    UserStatus status;
+    Boolean emailVerified;
+    String displayName;
+    List<String> permissions;
+    Long profileVersion;
+
+    Instant issuedAt;
+    Instant expiresAt;
+
+    /**
+     * Refresh tokens only: the device session and its rotation (see {@link RefreshSessionStore})
+     */
+    String deviceId;
+    Long rotation;
+
+    public boolean isAccessToken() {
+        return "access".equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
+    static ParsedToken from(Claims claims) {
+        String role = claims.get("role", String.class);
+        String status = claims.get(JwtTokenProvider.CLAIM_STATUS, String.class);
+        String permissions = claims.get(JwtTokenProvider.CLAIM_PERMISSIONS, String.class);
+
+        return ParsedToken.builder()
+                .tokenId(claims.getId())
+                .userId(claims.getSubject())
+                .email(claims.get("email", String.class))
+                .role(role != null ? UserRole.valueOf(role) : null)
+                .type(claims.get("type", String.class))
+                .status(status != null ? UserStatus.valueOf(status) : null)
+                .emailVerified(claims.get(JwtTokenProvider.CLAIM_EMAIL_VERIFIED, Boolean.class))
+                .displayName(claims.get(JwtTokenProvider.CLAIM_NAME, String.class))
+                .permissions(permissions != null ? List.of(permissions.split(",")) : null)
+                .profileVersion(claims.get(JwtTokenProvider.CLAIM_PROFILE_VERSION, Long.class))
+                .issuedAt(toInstant(claims.getIssuedAt()))
+                .expiresAt(toInstant(claims.getExpiration()))
+                .deviceId(claims.get("did", String.class))
+                .rotation(claims.get("rot", Long.class))
+                .build();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
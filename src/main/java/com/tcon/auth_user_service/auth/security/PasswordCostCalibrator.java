@@ -0,0 +1,61 @@
+package com.tcon.auth_user_service.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks password hashing work factors by timing real hashes on this machine.
+ *
+ * Each step up is measured and the highest cost whose hash stays within the target
+ * latency wins, clamped to [min, max]. Run once at startup; the result should be pinned
+ * in config when replicas run on different hardware so every node hashes with the same cost.
+ */
+@Slf4j
+public final class PasswordCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Password-123!";
+
+    private PasswordCostCalibrator() {
+    }
+
+    public static int calibrateBCryptStrength(Duration target, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            Duration elapsed = time(new BCryptPasswordEncoder(strength));
+            log.info("🔐 BCrypt strength {}: {} ms per hash", strength, elapsed.toMillis());
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = strength;
+        }
+        return chosen;
+    }
+
+    public static int calibrateArgon2Iterations(Duration target, int saltLength, int hashLength,
+                                                int parallelism, int memoryKib,
+                                                int minIterations, int maxIterations) {
+        int chosen = minIterations;
+        for (int iterations = minIterations; iterations <= maxIterations; iterations++) {
+            Duration elapsed = time(new Argon2PasswordEncoder(
+                    saltLength, hashLength, parallelism, memoryKib, iterations));
+            log.info("🔐 Argon2 iterations {} ({} KiB): {} ms per hash", iterations, memoryKib, elapsed.toMillis());
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = iterations;
+        }
+        return chosen;
+    }
+
+    private static Duration time(PasswordEncoder encoder) {
+        // First call warms up the JIT and (for Argon2) class loading; the second is measured
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,202 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs password hashing and matching on a dedicated, size-bounded pool.
+ *
+ * BCrypt costs hundreds of milliseconds of CPU per call; running it on Tomcat workers
+ * lets a login burst starve every other endpoint. Here at most {@code pool-size} hashes run
+ * at once, at most {@code queue-capacity} wait, and anything beyond that fails fast with
+ * {@link ServiceOverloadedException} (503 + Retry-After).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 0 = one thread per available processor
+     */
+    @Value("${app.password-hashing.pool-size:0}")
+    private int poolSize;
+
+    @Value("${app.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.password-hashing.max-wait:PT5S}")
+    private Duration maxWait;
+
+    @Value("${app.password-hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Timer waitTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time a password hashing task spent queued")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashing tasks rejected because the pool was saturated")
+                .register(meterRegistry);
+
+        log.info("✅ PasswordHashingService initialized (threads: {}, queue: {}, maxWait: {})",
+                threads, queueCapacity, maxWait);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes a batch in parallel on the pool, keeping at most {@code maxInFlight} of the batch's
+     * tasks queued or running so interactive logins still get threads. When the queue is full the
+     * calling thread hashes the password itself, which throttles the batch instead of failing it.
+     *
+     * @return encoded passwords in input order
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords, int maxInFlight) {
+        Semaphore inFlight = new Semaphore(Math.max(1, maxInFlight));
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                inFlight.acquire();
+                long enqueuedAt = System.nanoTime();
+                Callable<String> task = () -> {
+                    try {
+                        waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                        return passwordEncoder.encode(rawPassword);
+                    } finally {
+                        inFlight.release();
+                    }
+                };
+
+                try {
+                    futures.add(executor.submit(task));
+                } catch (RejectedExecutionException e) {
+                    futures.add(CompletableFuture.completedFuture(task.call()));
+                }
+            }
+
+            List<String> encoded = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                encoded.add(future.get());
+            }
+            return encoded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Password hashing failed", e);
+        }
+    }
+
+    /**
+     * Pool threads, used by batch callers to size their share of the pool
+     */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Whether a stored hash was produced with a different algorithm or work factor than the
+     * current policy. Cheap (parses the hash), so it runs on the caller's thread.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw overloaded();
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        log.warn("Password hashing pool saturated (active: {}, queued: {})",
+                executor.getActiveCount(), executor.getQueue().size());
+        return new ServiceOverloadedException(
+                "Too many sign-in requests right now, please retry shortly", retryAfterSeconds);
+    }
+}
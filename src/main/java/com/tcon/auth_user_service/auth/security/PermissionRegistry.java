@@ -0,0 +1,199 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.user.entity.AdminRole;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.repository.AdminRoleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory, compiled view of the active {@link AdminRole}s.
+ *
+ * Every distinct permission string gets a bit index and every active role is compiled into a
+ * fixed {@code long[]} bitset over those indexes, so a permission check is one hash lookup and one
+ * bit test instead of a Mongo query and a list scan. The compiled snapshot is immutable and
+ * swapped atomically on reload; reloads happen after every change made through AdminRoleService
+ * (on all replicas, via Redis pub/sub) and periodically as a safety net.
+ *
+ * {@link UserRole#ADMIN} is the super-admin role and holds every permission.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionRegistry implements MessageListener {
+
+    public static final String CHANNEL = "admin-role-changes";
+
+    private final AdminRoleRepository adminRoleRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RefreshSessionStore refreshSessionStore;
+
+    @Value("${app.security.permissions.reload-interval:PT5M}")
+    private Duration reloadInterval;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private ScheduledExecutorService reloadScheduler;
+
+    /**
+     * @param bitIndex    permission -> bit position
+     * @param roles       active role name -> compiled permission bits
+     * @param permissions active role name -> permissions as configured, for token claims
+     */
+    private record Snapshot(Map<String, Integer> bitIndex,
+                            Map<String, long[]> roles,
+                            Map<String, List<String>> permissions) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of());
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+
+        this.reloadScheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("permission-registry-reload-"));
+        reloadScheduler.scheduleAtFixedRate(this::reload,
+                reloadInterval.toMillis(), reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadScheduler.shutdownNow();
+    }
+
+    /**
+     * Whether the role is an active AdminRole
+     */
+    public boolean isActiveRole(String roleName) {
+        return roleName != null && snapshot.roles().containsKey(roleName);
+    }
+
+    public boolean hasPermission(String roleName, String permission) {
+        if (UserRole.ADMIN.name().equals(roleName)) {
+            return true;
+        }
+
+        Snapshot current = snapshot;
+        long[] bits = current.roles().get(roleName);
+        Integer bit = current.bitIndex().get(permission);
+        if (bits == null || bit == null) {
+            return false;
+        }
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return the role's permissions, empty if it is not an active AdminRole
+     */
+    public List<String> permissionsOf(String roleName) {
+        return roleName != null
+                ? snapshot.permissions().getOrDefault(roleName, List.of())
+                : List.of();
+    }
+
+    /**
+     * Call after an AdminRole was created, changed or deactivated. Once the surrounding
+     * transaction (if any) has committed, reloads this node and the others and marks the refresh
+     * sessions of the role's users stale, so their tokens stop carrying the old permissions.
+     */
+    public void roleChanged(String roleName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyRoleChange(roleName);
+                }
+            });
+        } else {
+            applyRoleChange(roleName);
+        }
+    }
+
+    /**
+     * Role change broadcast from any node (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+
+    private void applyRoleChange(String roleName) {
+        reload();
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, "reload");
+        } catch (Exception e) {
+            // Other replicas catch up on their next periodic reload
+            log.error("❌ Failed to broadcast admin role change: {}", e.getMessage());
+        }
+
+        // After the reload, so re-created sessions pick up the new permissions
+        try {
+            refreshSessionStore.markRoleChanged(roleName);
+        } catch (Exception e) {
+            log.error("❌ Failed to mark refresh sessions of role {} stale: {}", roleName, e.getMessage());
+        }
+    }
+
+    synchronized void reload() {
+        List<AdminRole> activeRoles;
+        try {
+            activeRoles = adminRoleRepository.findByIsActive(true);
+        } catch (Exception e) {
+            // Keep serving the last compiled snapshot
+            log.warn("⚠️ Admin roles not reloaded: {}", e.getMessage());
+            return;
+        }
+
+        Map<String, Integer> bitIndex = new HashMap<>();
+        for (AdminRole role : activeRoles) {
+            for (String permission : permissionsOf(role)) {
+                bitIndex.putIfAbsent(permission, bitIndex.size());
+            }
+        }
+
+        int words = Math.max(1, (bitIndex.size() + 63) / 64);
+        Map<String, long[]> roles = new HashMap<>();
+        Map<String, List<String>> permissions = new HashMap<>();
+        for (AdminRole role : activeRoles) {
+            long[] bits = new long[words];
+            for (String permission : permissionsOf(role)) {
+                int bit = bitIndex.get(permission);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            roles.put(role.getRoleName(), bits);
+            permissions.put(role.getRoleName(), List.copyOf(new LinkedHashSet<>(permissionsOf(role))));
+        }
+
+        snapshot = new Snapshot(Map.copyOf(bitIndex), Map.copyOf(roles), Map.copyOf(permissions));
+        log.info("🔐 Permission registry compiled: {} active roles, {} distinct permissions",
+                roles.size(), bitIndex.size());
+    }
+
+    private static List<String> permissionsOf(AdminRole role) {
+        if (role.getAllowedPermissions() == null) {
+            return List.of();
+        }
+        return role.getAllowedPermissions().stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(permission -> !permission.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One device's refresh session as held in Redis by {@link RefreshSessionStore}.
+ * Carries everything needed to issue a new token pair without reading the user from Mongo.
+ */
+@Value
+@Builder
+public class RefreshSession {
+
+    String userId;
+    String deviceId;
+    String email;
+    String firstName;
+    String lastName;
+    UserRole role;
+    UserStatus status;
+    Boolean emailVerified;
+    List<String> permissions;
+    Long profileVersion;
+
+    /**
+     * Incremented on every refresh; only a refresh token carrying the current value is accepted
+     */
+    long rotation;
+
+    /**
+     * The user's session generation the session was created under; only set on stale sessions
+     */
+    String generation;
+
+    /**
+     * The user's profile changed since the session was created: it must be
+     * {@link RefreshSessionStore#recreate re-created} before issuing tokens
+     */
+    boolean stale;
+}
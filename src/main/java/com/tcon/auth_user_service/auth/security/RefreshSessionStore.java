@@ -0,0 +1,215 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.exception.InvalidCredentialsException;
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-device refresh sessions in Redis.
+ *
+ * {@code rs:<userId>:<deviceId>} is a hash with the user's profile fields, a rotation counter and
+ * the user's session generation at creation time. Refresh rotates the counter in one script call
+ * and serves the new token pair from the hash, so it never reads Mongo. Revoking one device
+ * deletes its hash; revoking every device bumps {@code rs:gen:<userId>}, which invalidates all
+ * older sessions in O(1) regardless of how many there are. Likewise a profile change bumps
+ * {@code rs:ver:<userId>}, and the next refresh of each session re-reads the user once so the
+ * claims in its tokens catch up. The same happens to every session of a role when its admin
+ * permissions change, through the role's version in {@code rs:role-ver}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshSessionStore {
+
+    private static final String SESSION_PREFIX = "rs:";
+    private static final String GENERATION_PREFIX = "rs:gen:";
+    private static final String VERSION_PREFIX = "rs:ver:";
+    private static final String ROLE_VERSIONS_KEY = "rs:role-ver";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshTokenValidityInMs;
+
+    private RedisScript<Long> createScript;
+    private RedisScript<List> rotateScript;
+
+    @PostConstruct
+    public void init() {
+        this.createScript = RedisScript.of(new ClassPathResource("scripts/refresh-session-create.lua"), Long.class);
+        this.rotateScript = RedisScript.of(new ClassPathResource("scripts/refresh-session-rotate.lua"), List.class);
+    }
+
+    /**
+     * Starts (or restarts) the session for {@code deviceId}
+     *
+     * @param permissions admin permissions to embed in the session's access tokens
+     * @return the new session, at rotation 0
+     */
+    public RefreshSession create(User user, String deviceId, List<String> permissions) {
+        return create(user, deviceId, permissions, 0, "");
+    }
+
+    /**
+     * Re-creates a session {@link #rotate} reported as stale, at the rotation it already advanced to.
+     * Fails if the session was revoked, ended or rotated again in the meantime, so a concurrent
+     * refresh or a logout-all cannot be undone by the re-creation.
+     *
+     * @throws InvalidCredentialsException if the stale session is no longer current
+     */
+    public RefreshSession recreate(User user, RefreshSession stale, List<String> permissions) {
+        return create(user, stale.getDeviceId(), permissions, stale.getRotation(), stale.getGeneration());
+    }
+
+    private RefreshSession create(User user, String deviceId, List<String> permissions,
+                                  long rotation, String expectedGeneration) {
+        Long profileVersion = user.getUpdatedAt() != null
+                ? user.getUpdatedAt().toEpochSecond(ZoneOffset.UTC)
+                : null;
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(refreshTokenValidityInMs));
+        args.add(String.valueOf(rotation));
+        args.add(expectedGeneration);
+        addField(args, "email", user.getEmail());
+        addField(args, "firstName", user.getFirstName());
+        addField(args, "lastName", user.getLastName());
+        addField(args, "role", user.getRole() != null ? user.getRole().name() : null);
+        addField(args, "status", user.getStatus() != null ? user.getStatus().name() : null);
+        addField(args, "emailVerified", user.getEmailVerified() != null ? user.getEmailVerified().toString() : null);
+        addField(args, "perm", permissions.isEmpty() ? null : String.join(",", permissions));
+        addField(args, "pv", profileVersion != null ? profileVersion.toString() : null);
+
+        Long created = stringRedisTemplate.execute(createScript, keys(user.getId(), deviceId), args.toArray());
+        if (created == null || created == 0) {
+            throw new InvalidCredentialsException("Refresh token is no longer valid");
+        }
+
+        return RefreshSession.builder()
+                .userId(user.getId())
+                .deviceId(deviceId)
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .status(user.getStatus())
+                .emailVerified(user.getEmailVerified())
+                .permissions(permissions)
+                .profileVersion(profileVersion)
+                .rotation(rotation)
+                .build();
+    }
+
+    /**
+     * Accepts a refresh token's rotation and advances the session
+     *
+     * @return the session after rotation; if the user's profile changed since the session was
+     *         created, a {@link RefreshSession#isStale() stale} placeholder carrying only what
+     *         {@link #recreate} needs
+     * @throws InvalidCredentialsException if the session is gone, revoked, or the token was already rotated
+     */
+    public RefreshSession rotate(String userId, String deviceId, long rotation) {
+        List<?> result = stringRedisTemplate.execute(rotateScript, keys(userId, deviceId),
+                String.valueOf(rotation), String.valueOf(refreshTokenValidityInMs));
+
+        Map<String, String> fields = new HashMap<>();
+        if (result != null) {
+            for (int i = 0; i + 1 < result.size(); i += 2) {
+                fields.put(String.valueOf(result.get(i)), String.valueOf(result.get(i + 1)));
+            }
+        }
+
+        String error = fields.get("error");
+        if ("stale".equals(error)) {
+            return RefreshSession.builder()
+                    .userId(userId)
+                    .deviceId(deviceId)
+                    .generation(fields.get("gen"))
+                    .rotation(Long.parseLong(fields.get("rot")))
+                    .stale(true)
+                    .build();
+        }
+        if (error != null || fields.isEmpty()) {
+            if ("reused".equals(error)) {
+                log.warn("🚨 Refresh token reuse detected, session ended: user={}, device={}", userId, deviceId);
+            }
+            throw new InvalidCredentialsException("Refresh token is no longer valid");
+        }
+
+        return RefreshSession.builder()
+                .userId(userId)
+                .deviceId(deviceId)
+                .email(fields.get("email"))
+                .firstName(fields.get("firstName"))
+                .lastName(fields.get("lastName"))
+                .role(fields.containsKey("role") ? UserRole.valueOf(fields.get("role")) : null)
+                .status(fields.containsKey("status") ? UserStatus.valueOf(fields.get("status")) : null)
+                .emailVerified(fields.containsKey("emailVerified") ? Boolean.valueOf(fields.get("emailVerified")) : null)
+                .permissions(fields.containsKey("perm") ? List.of(fields.get("perm").split(",")) : List.of())
+                .profileVersion(fields.containsKey("pv") ? Long.valueOf(fields.get("pv")) : null)
+                .rotation(Long.parseLong(fields.get("rot")))
+                .build();
+    }
+
+    public void revoke(String userId, String deviceId) {
+        stringRedisTemplate.delete(SESSION_PREFIX + userId + ":" + deviceId);
+        log.info("Refresh session revoked: user={}, device={}", userId, deviceId);
+    }
+
+    /**
+     * Marks every session of the user as stale after a profile change (status, name, ...)
+     */
+    public void markProfileChanged(String userId) {
+        String versionKey = VERSION_PREFIX + userId;
+        stringRedisTemplate.opsForValue().increment(versionKey);
+        stringRedisTemplate.expire(versionKey, Duration.ofMillis(refreshTokenValidityInMs));
+    }
+
+    /**
+     * Marks every session of users holding the role as stale after its permissions changed,
+     * so the permissions embedded in their tokens are re-read on the next refresh
+     */
+    public void markRoleChanged(String roleName) {
+        stringRedisTemplate.opsForHash().increment(ROLE_VERSIONS_KEY, roleName, 1);
+    }
+
+    /**
+     * Ends every session of the user, whatever the number of devices
+     */
+    public void revokeAll(String userId) {
+        String generationKey = GENERATION_PREFIX + userId;
+        stringRedisTemplate.opsForValue().increment(generationKey);
+        // Sessions stamped with older generations expire within one refresh lifetime
+        stringRedisTemplate.expire(generationKey, Duration.ofMillis(refreshTokenValidityInMs));
+        log.info("All refresh sessions revoked for user: {}", userId);
+    }
+
+    private static List<String> keys(String userId, String deviceId) {
+        return List.of(SESSION_PREFIX + userId + ":" + deviceId, GENERATION_PREFIX + userId, VERSION_PREFIX + userId,
+                ROLE_VERSIONS_KEY);
+    }
+
+    // Null fields are left out of the hash rather than stored as "null"
+    private static void addField(List<String> args, String name, String value) {
+        if (value != null) {
+            args.add(name);
+            args.add(value);
+        }
+    }
+}
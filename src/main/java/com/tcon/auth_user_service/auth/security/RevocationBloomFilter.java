@@ -0,0 +1,95 @@
+package com.tcon.auth_user_service.auth.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings, used by {@link TokenRevocationService} to answer
+ * "definitely not revoked" without a network call.
+ *
+ * Bits live in an {@link AtomicLongArray}, so {@link #put} and {@link #mightContain} may be called
+ * concurrently without locking. The k probe positions come from two 64-bit hashes combined by
+ * double hashing. Elements cannot be removed; the owner rebuilds the filter periodically instead.
+ */
+public final class RevocationBloomFilter {
+
+    private static final long SEED_1 = 0xcbf29ce484222325L;
+    private static final long SEED_2 = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of elements the filter is sized for
+     * @param falsePositiveRate  target false-positive probability at that size
+     */
+    public RevocationBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing: "
+                    + expectedInsertions + " insertions at " + falsePositiveRate);
+        }
+
+        long optimalBits = (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String element) {
+        long hash1 = hash(element, SEED_1);
+        long hash2 = hash(element, SEED_2) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the element was definitely never added
+     */
+    public boolean mightContain(String element) {
+        long hash1 = hash(element, SEED_1);
+        long hash2 = hash(element, SEED_2) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars followed by the MurmurHash3 finalizer for avalanche
+     */
+    private static long hash(String element, long seed) {
+        long h = seed;
+        for (int i = 0; i < element.length(); i++) {
+            h ^= element.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
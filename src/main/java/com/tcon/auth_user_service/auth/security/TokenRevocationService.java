@@ -0,0 +1,243 @@
+package com.tcon.auth_user_service.auth.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revocation of individual tokens (by {@code jti}) and of every token issued to a user before a
+ * point in time ("not before").
+ *
+ * Redis is the source of truth: {@code revoked:jti:<jti>} lives until the token would have
+ * expired, {@code revoked:user:<userId>} holds the not-before epoch second for one refresh-token
+ * lifetime (refresh tokens issued before refresh sessions existed are checked against it too). Every node mirrors those keys into an in-process {@link RevocationBloomFilter}, fed by
+ * pub/sub and rebuilt from a key scan at startup and periodically (Bloom filters cannot forget
+ * expired entries). A filter miss proves the token is not revoked; only hits go to Redis.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationService implements MessageListener {
+
+    public static final String CHANNEL = "token-revocation";
+
+    private static final String KEY_PREFIX = "revoked:";
+    private static final String TOKEN_KEY_PREFIX = "revoked:jti:";
+    private static final String USER_KEY_PREFIX = "revoked:user:";
+
+    // Filter elements: the Redis key without the shared prefix, e.g. "jti:<jti>", "user:<userId>"
+    private static final String TOKEN_ELEMENT_PREFIX = "jti:";
+    private static final String USER_ELEMENT_PREFIX = "user:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration}")
+    private long accessTokenValidityInMs;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshTokenValidityInMs;
+
+    @Value("${app.security.token-revocation.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${app.security.token-revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.security.token-revocation.rebuild-interval:PT10M}")
+    private Duration rebuildInterval;
+
+    private volatile RevocationBloomFilter filter;
+
+    /**
+     * Filter being rebuilt; revocations arriving during the scan are added to it as well
+     */
+    private volatile RevocationBloomFilter rebuilding;
+
+    private ScheduledExecutorService rebuildScheduler;
+
+    private Counter confirmedRevoked;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void init() {
+        this.filter = new RevocationBloomFilter(expectedInsertions, falsePositiveRate);
+        this.confirmedRevoked = checkCounter("revoked");
+        this.falsePositives = checkCounter("false-positive");
+
+        rebuild();
+
+        this.rebuildScheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("token-revocation-rebuild-"));
+        rebuildScheduler.scheduleAtFixedRate(this::rebuild,
+                rebuildInterval.toMillis(), rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("✅ TokenRevocationService initialized (bits: {}, hashes: {}, rebuildInterval: {})",
+                filter.getBitCount(), filter.getHashCount(), rebuildInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildScheduler.shutdownNow();
+    }
+
+    /**
+     * Revoke a single token until it expires
+     */
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+
+        stringRedisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + tokenId, "1", remaining);
+        publish(TOKEN_ELEMENT_PREFIX + tokenId);
+        log.info("🔒 Token revoked: {}", tokenId);
+    }
+
+    /**
+     * Revoke every token issued to the user up to now. JWT {@code iat} has second precision, so
+     * tokens issued in the same second as the revocation are revoked too: a login racing the
+     * revocation has to retry a second later rather than keep a token minted before it.
+     */
+    public void revokeUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        long notBefore = Instant.now().getEpochSecond();
+
+        // Older access and refresh tokens have expired by the time this key does
+        stringRedisTemplate.opsForValue().set(USER_KEY_PREFIX + userId, String.valueOf(notBefore),
+                Duration.ofMillis(Math.max(accessTokenValidityInMs, refreshTokenValidityInMs)));
+        publish(USER_ELEMENT_PREFIX + userId);
+        log.info("🔒 All tokens revoked for user: {}", userId);
+    }
+
+    /**
+     * Called for every authenticated request. Costs two filter probes when the token is not
+     * revoked; Redis is only asked when the filter reports a possible match.
+     */
+    public boolean isRevoked(ParsedToken token) {
+        RevocationBloomFilter current = filter;
+        String tokenId = token.getTokenId();
+
+        boolean tokenCandidate = tokenId != null && current.mightContain(TOKEN_ELEMENT_PREFIX + tokenId);
+        boolean userCandidate = current.mightContain(USER_ELEMENT_PREFIX + token.getUserId());
+        if (!tokenCandidate && !userCandidate) {
+            return false;
+        }
+
+        boolean revoked = confirm(token, tokenCandidate, userCandidate);
+        (revoked ? confirmedRevoked : falsePositives).increment();
+        return revoked;
+    }
+
+    private boolean confirm(ParsedToken token, boolean tokenCandidate, boolean userCandidate) {
+        try {
+            if (tokenCandidate && Boolean.TRUE.equals(
+                    stringRedisTemplate.hasKey(TOKEN_KEY_PREFIX + token.getTokenId()))) {
+                return true;
+            }
+            if (userCandidate) {
+                String notBefore = stringRedisTemplate.opsForValue().get(USER_KEY_PREFIX + token.getUserId());
+                return notBefore != null
+                        && token.getIssuedAt() != null
+                        && token.getIssuedAt().getEpochSecond() <= Long.parseLong(notBefore);
+            }
+            return false;
+        } catch (Exception e) {
+            // A filter hit is most likely a real revocation: fail closed
+            log.warn("⚠️ Revocation check could not reach Redis, rejecting token of user {}: {}",
+                    token.getUserId(), e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Revocation broadcast from any node (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void publish(String element) {
+        add(element);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, element);
+        } catch (Exception e) {
+            // Other nodes pick the key up on their next rebuild
+            log.error("❌ Failed to broadcast token revocation {}: {}", element, e.getMessage());
+        }
+    }
+
+    private void add(String element) {
+        // Read rebuilding before filter: if a rebuild swaps in between, filter is already the new
+        // one; if none was running yet, its scan starts after the Redis key was written
+        RevocationBloomFilter pending = rebuilding;
+        filter.put(element);
+        if (pending != null) {
+            pending.put(element);
+        }
+    }
+
+    /**
+     * Replaces the filter with one built from the revocation keys currently in Redis,
+     * dropping entries that have expired since the last rebuild
+     */
+    synchronized void rebuild() {
+        RevocationBloomFilter fresh = new RevocationBloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = fresh;
+        long count = 0;
+
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                fresh.put(keys.next().substring(KEY_PREFIX.length()));
+                count++;
+            }
+        } catch (Exception e) {
+            // Keep the current filter: it may hold stale entries but never misses a revocation
+            rebuilding = null;
+            log.warn("⚠️ Token revocation filter not rebuilt: {}", e.getMessage());
+            return;
+        }
+
+        // Swap before detaching, so a concurrent add() always reaches the filter that is kept
+        filter = fresh;
+        rebuilding = null;
+        if (count > expectedInsertions) {
+            log.warn("⚠️ {} active revocations exceed the filter's sizing of {}; false positives will rise",
+                    count, expectedInsertions);
+        }
+        log.debug("Token revocation filter rebuilt with {} entries", count);
+    }
+
+    private Counter checkCounter(String outcome) {
+        return Counter.builder("token.revocation.checks")
+                .description("Revocation filter hits, by Redis confirmation outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
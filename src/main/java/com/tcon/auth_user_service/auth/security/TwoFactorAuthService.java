@@ -1,26 +1,62 @@
 package com.tcon.auth_user_service.auth.security;
 
+import com.tcon.auth_user_service.client.NotificationDeliveryQueue;
+import com.tcon.auth_user_service.client.dto.EmailNotificationRequest;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
+import com.tcon.auth_user_service.exception.RateLimitExceededException;
 import com.tcon.auth_user_service.user.entity.User;
 import com.tcon.auth_user_service.user.repository.UserRepository;
 import com.warrenstrange.googleauth.GoogleAuthenticator;
+import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 import com.warrenstrange.googleauth.GoogleAuthenticatorQRGenerator;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TwoFactorAuthService {
 
+    private static final String CHALLENGE_KEY_PREFIX = "2fa:";
+    private static final String TWO_FACTOR_TEMPLATE = "TWO_FACTOR_CODE";
+    private static final Pattern CODE_FORMAT = Pattern.compile("\\d{6}");
+
     private final UserRepository userRepository;
-    private final RedisTemplate<String, String> redisTemplate;
-    private final GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NotificationDeliveryQueue notificationDeliveryQueue;
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
+    private final GoogleAuthenticatorConfig authenticatorConfig =
+            new GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder().build();
+    private final GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator(authenticatorConfig);
+
+    @Value("${app.security.two-factor.code-ttl:PT5M}")
+    private Duration codeTtl;
+
+    @Value("${app.security.two-factor.max-attempts:5}")
+    private int maxAttempts;
+
+    private RedisScript<Long> issueScript;
+    private RedisScript<Long> verifyScript;
+
+    @PostConstruct
+    public void init() {
+        this.issueScript = RedisScript.of(new ClassPathResource("scripts/two-factor-issue.lua"), Long.class);
+        this.verifyScript = RedisScript.of(new ClassPathResource("scripts/two-factor-verify.lua"), Long.class);
+    }
 
     @Transactional
     public String enableTwoFactor(String userId) {
@@ -33,6 +69,7 @@ public class TwoFactorAuthService {
         user.setTwoFactorSecret(secret);
         user.setTwoFactorEnabled(true);
         userRepository.save(user);
+        userCacheInvalidationPublisher.invalidate(userId);
 
         String qrUrl = GoogleAuthenticatorQRGenerator.getOtpAuthURL(
                 "TutoringPlatform",
@@ -52,6 +89,7 @@ public class TwoFactorAuthService {
         user.setTwoFactorEnabled(false);
         user.setTwoFactorSecret(null);
         userRepository.save(user);
+        userCacheInvalidationPublisher.invalidate(userId);
 
         log.info("2FA disabled for user: {}", user.getEmail());
     }
@@ -64,49 +102,83 @@ public class TwoFactorAuthService {
         int code = googleAuthenticator.getTotpPassword(user.getTwoFactorSecret());
         String codeStr = String.format("%06d", code);
 
-        // Store in Redis for 5 minutes
-        String key = "2fa:" + user.getEmail();
-        redisTemplate.opsForValue().set(key, codeStr, 5, TimeUnit.MINUTES);
+        // Store in the user's challenge hash for code-ttl (attempts / TOTP replay marker are kept)
+        stringRedisTemplate.execute(issueScript, List.of(challengeKey(user)),
+                codeStr, String.valueOf(codeTtl.toMillis()));
 
         log.debug("Generated 2FA code for {}: {}", user.getEmail(), codeStr);
 
-        // TODO: Send via SMS/Email service
-        // emailService.send2FACode(user.getEmail(), codeStr);
+        // Queued, not sent inline: login returns TWO_FACTOR_REQUIRED without waiting on the notification service
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("name", user.getFullName());
+        payload.put("code", codeStr);
+        payload.put("expiresInMinutes", codeTtl.toMinutes());
+
+        notificationDeliveryQueue.enqueue(EmailNotificationRequest.builder()
+                .to(user.getEmail())
+                .templateCode(TWO_FACTOR_TEMPLATE)
+                .payload(payload)
+                .build());
 
         return codeStr;
     }
 
+    /**
+     * One Redis call: attempt limit, compare-and-delete of the delivered code and TOTP replay
+     * check all run in a single script, so two concurrent submissions cannot both pass.
+     *
+     * @throws RateLimitExceededException after too many wrong codes
+     */
     public boolean verifyCode(User user, String code) {
         if (user.getTwoFactorSecret() == null) {
             log.warn("2FA verification attempted but not configured for user: {}", user.getEmail());
             return false;
         }
 
-        // Check Redis first (for email/sms codes)
-        String key = "2fa:" + user.getEmail();
-        String storedCode = redisTemplate.opsForValue().get(key);
+        if (code == null || !CODE_FORMAT.matcher(code).matches()) {
+            log.error("Invalid 2FA code format for user: {}", user.getEmail());
+            return false;
+        }
+
+        Long result = stringRedisTemplate.execute(verifyScript, List.of(challengeKey(user)),
+                code,
+                String.valueOf(matchingTotpStep(user.getTwoFactorSecret(), Integer.parseInt(code))),
+                String.valueOf(maxAttempts),
+                String.valueOf(codeTtl.toMillis()));
 
-        if (storedCode != null && storedCode.equals(code)) {
-            redisTemplate.delete(key);
-            log.info("2FA verification successful via stored code for user: {}", user.getEmail());
-            return true;
+        if (result == null || result == 0) {
+            log.warn("2FA verification failed for user: {}", user.getEmail());
+            return false;
+        }
+        if (result < 0) {
+            log.warn("2FA attempts exhausted for user: {}", user.getEmail());
+            throw new RateLimitExceededException("Too many invalid 2FA codes. Please try again later.",
+                    Math.max(1, Duration.ofMillis(-result).toSeconds()));
         }
 
-        // Fallback to TOTP verification
-        try {
-            int codeInt = Integer.parseInt(code);
-            boolean isValid = googleAuthenticator.authorize(user.getTwoFactorSecret(), codeInt);
+        log.info("2FA verification successful via {} for user: {}",
+                result == 1 ? "stored code" : "TOTP", user.getEmail());
+        return true;
+    }
 
-            if (isValid) {
-                log.info("2FA verification successful via TOTP for user: {}", user.getEmail());
-            } else {
-                log.warn("2FA verification failed for user: {}", user.getEmail());
+    /**
+     * TOTP time step within the authenticator's window whose code equals {@code code}, or -1.
+     * Pure CPU; the replay check against previously accepted steps happens in Redis.
+     */
+    private long matchingTotpStep(String secret, int code) {
+        long stepMillis = authenticatorConfig.getTimeStepSizeInMillis();
+        long currentStep = System.currentTimeMillis() / stepMillis;
+        int halfWindow = authenticatorConfig.getWindowSize() / 2;
+
+        for (long step = currentStep - halfWindow; step <= currentStep + halfWindow; step++) {
+            if (googleAuthenticator.getTotpPassword(secret, step * stepMillis) == code) {
+                return step;
             }
-
-            return isValid;
-        } catch (NumberFormatException e) {
-            log.error("Invalid 2FA code format for user: {}", user.getEmail());
-            return false;
         }
+        return -1;
+    }
+
+    private static String challengeKey(User user) {
+        return CHALLENGE_KEY_PREFIX + user.getId();
     }
 }
@@ -0,0 +1,68 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tcon.auth_user_service.event.UserCacheInvalidatedEvent;
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import com.tcon.auth_user_service.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Near-cache of account status for the authentication filter.
+ * Entries are dropped on {@link UserCacheInvalidatedEvent}; the TTL is only a safety net
+ * for a missed broadcast.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.user-status-cache.ttl:PT60S}")
+    private Duration ttl;
+
+    @Value("${app.security.user-status-cache.max-size:100000}")
+    private long maxSize;
+
+    // Optional.empty() caches "no such user" so unknown ids don't hit Mongo either
+    private Cache<String, Optional<UserStatus>> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.status");
+        log.info("✅ UserStatusCache initialized (ttl: {}, maxSize: {})", ttl, maxSize);
+    }
+
+    /**
+     * @return the user's status, or {@code null} if the user does not exist
+     */
+    public UserStatus getStatus(String userId) {
+        return cache.get(userId, id -> userRepository.findStatusById(id).map(User::getStatus))
+                .orElse(null);
+    }
+
+    @EventListener
+    public void onUserCacheInvalidated(UserCacheInvalidatedEvent event) {
+        cache.invalidate(event.getUserId());
+        log.debug("User status cache invalidated for: {}", event.getUserId());
+    }
+}
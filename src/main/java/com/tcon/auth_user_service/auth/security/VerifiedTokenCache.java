@@ -0,0 +1,86 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ * Keyed by a SHA-256 digest of the token so raw tokens are never held in memory;
+ * an entry never outlives the token's own {@code exp}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.verified-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.verified-cache.max-size:100000}")
+    private long maxSize;
+
+    @Value("${jwt.verified-cache.max-ttl:PT15M}")
+    private Duration maxTtl;
+
+    private Cache<String, ParsedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+        log.info("✅ VerifiedTokenCache initialized (enabled: {}, maxSize: {}, maxTtl: {})",
+                enabled, maxSize, maxTtl);
+    }
+
+    public ParsedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(TokenDigests.sha256(token));
+    }
+
+    public void put(String token, ParsedToken parsed) {
+        if (!enabled || parsed.getExpiresAt() == null) {
+            return;
+        }
+        cache.put(TokenDigests.sha256(token), parsed);
+    }
+
+    private class TokenExpiry implements Expiry<String, ParsedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, ParsedToken value, long currentTime) {
+            Duration untilExpiry = Duration.between(Instant.now(), value.getExpiresAt());
+            Duration ttl = untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+            return Math.max(0, ttl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ParsedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ParsedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
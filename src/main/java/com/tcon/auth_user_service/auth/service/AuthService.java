@@ -1,8 +1,20 @@
 package com.tcon.auth_user_service.auth.service;
 import com.tcon.auth_user_service.auth.dto.*;
+import com.tcon.auth_user_service.auth.security.AccessTokenClaims;
 import com.tcon.auth_user_service.auth.security.JwtTokenProvider;
+import com.tcon.auth_user_service.auth.security.LoginThrottleService;
+import com.tcon.auth_user_service.auth.security.ParsedToken;
+import com.tcon.auth_user_service.auth.security.PasswordHashingService;
+import com.tcon.auth_user_service.auth.security.PermissionRegistry;
+import com.tcon.auth_user_service.auth.security.RefreshSession;
+import com.tcon.auth_user_service.auth.security.RefreshSessionStore;
+import com.tcon.auth_user_service.auth.security.TokenRevocationService;
 import com.tcon.auth_user_service.auth.security.TwoFactorAuthService;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
 import com.tcon.auth_user_service.event.UserEventPublisher;
+import com.tcon.auth_user_service.exception.ConflictException;
+import com.tcon.auth_user_service.exception.InvalidCredentialsException;
+import com.tcon.auth_user_service.exception.ServiceOverloadedException;
 import com.tcon.auth_user_service.user.entity.TeacherVerification;
 import com.tcon.auth_user_service.user.entity.User;
 import com.tcon.auth_user_service.user.entity.UserRole;
@@ -11,32 +23,40 @@ import com.tcon.auth_user_service.user.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final Pattern DUPLICATE_KEY_INDEX = Pattern.compile("index: (\\S+) dup key");
+
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
+    private final RefreshSessionStore refreshSessionStore;
+    private final TokenRevocationService tokenRevocationService;
     private final TwoFactorAuthService twoFactorAuthService;
     private final PasswordResetService passwordResetService;
     private final UserEventPublisher userEventPublisher;
-    private final AdminRoleRepository adminRoleRepository;  // ✅ NEW
+    private final PermissionRegistry permissionRegistry;
     private final TeacherRepository teacherRepository;
     private final TeacherVerificationRepository teacherVerificationRepository;
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
     // ✅ ADMIN ROLES - Now includes new financial roles
+
     private static final List<String> ADMIN_ROLES = Arrays.asList(
             "ADMIN",
             "MODERATOR",
@@ -57,41 +77,13 @@ public class AuthService {
     @Transactional
     public TokenResponse register(RegisterRequest request) {
 
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email already in use");
-        }
-
-        if (request.getPhoneNumber() != null &&
-                userRepository.existsByPhoneNumber(request.getPhoneNumber())) {
-            throw new IllegalArgumentException("Phone number already in use");
-        }
-
-        // ✅ Set status based on role
-        UserStatus initialStatus;
-        if (request.getRole() == UserRole.TEACHER) {
-            initialStatus = UserStatus.PENDING_VERIFICATION; // or whatever enum value you use
-        } else {
-            initialStatus = UserStatus.ACTIVE;
-        }
-
-        User user = User.builder()
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .phoneNumber(request.getPhoneNumber())
-                .role(request.getRole())
-                .status(initialStatus)            // ✅ use initialStatus
-                .emailVerified(false)
-                .twoFactorEnabled(false)
-                .failedLoginAttempts(0)
-                .build();
+        // Email / phone uniqueness is enforced by the unique indexes on insert (see insertUser)
 
-        user.setEmailVerificationToken(RandomStringUtils.randomAlphanumeric(32));
-        user.setEmailVerificationTokenExpiry(LocalDateTime.now().plusDays(1));
+        User user = newUser(request, passwordHashingService.encode(request.getPassword()));
 
-        User savedUser = userRepository.save(user);
+        User savedUser = insertUser(user);
         userEventPublisher.publishUserCreated(savedUser);
+        passwordResetService.sendEmailVerification(List.of(savedUser));
 
         if (request.getRole() == UserRole.TEACHER) {
             TeacherVerification verification = TeacherVerification.builder()
@@ -100,39 +92,49 @@ public class AuthService {
                     .documentUrls(List.of())
                     .build();
 
-            teacherVerificationRepository.save(verification);
+            teacherVerificationRepository.insert(verification);
             log.info("✅ TeacherVerification auto-created for: {}", savedUser.getId());
         }
 
         log.info("User registered: {} ({})", savedUser.getEmail(), savedUser.getRole());
 
-        return buildTokenResponse(savedUser);
+        return buildTokenResponse(savedUser, null);
     }  // ✅ THIS CLOSING BRACE WAS MISSING — closes register()
     /**
-     * Login user (2FA-aware)
+     * Login user (2FA-aware). Expected failures come back as an outcome instead of an exception;
+     * only throttling and rejected teachers still throw.
      */
     @Transactional
-    public TokenResponse login(LoginRequest request) {
+    public LoginOutcome login(LoginRequest request, String clientIp) {
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadCredentialsException("Invalid email or password"));
+        // Throttled attempts stop here, before Mongo or BCrypt are touched
+        loginThrottleService.checkAllowed(request.getEmail(), clientIp);
+
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (user == null) {
+            loginThrottleService.recordFailure(request.getEmail(), clientIp);
+            return LoginOutcome.INVALID;
+        }
 
         if (user.getStatus() == UserStatus.SUSPENDED ||
                 user.getStatus() == UserStatus.BANNED ||
                 user.getStatus() == UserStatus.DELETED) {
-            throw new IllegalStateException("Account is suspended or inactive");
+            return LoginOutcome.INACTIVE;
         }
 
-
         if (user.isAccountLocked()) {
-            throw new IllegalStateException(
-                    "Account locked until " + user.getLockedUntil());
+            return LoginOutcome.lockedUntil(user.getLockedUntil());
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            user.incrementFailedAttempts();
-            userRepository.save(user);
-            throw new BadCredentialsException("Invalid email or password");
+        UserStatus statusBefore = user.getStatus();
+
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+            User updated = recordFailedLogin(user, clientIp);
+            if (updated != null && updated.getStatus() != statusBefore) {
+                // Lockout: the auth filter must stop accepting this user's tokens now
+                userCacheInvalidationPublisher.invalidate(user.getId());
+            }
+            return LoginOutcome.INVALID;
         }
 
         // 🔴 BLOCK REJECTED TEACHERS FROM LOGGING IN (ADDED LOGIC)
@@ -147,19 +149,59 @@ public class AuthService {
                     });
         }
 
+        String upgradedHash = upgradePasswordHash(user, request.getPassword());
+
+        loginThrottleService.recordSuccess(request.getEmail());
+        User updated = userRepository.recordSuccessfulLogin(user.getId(), upgradedHash);
         user.resetFailedAttempts();
         user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        if (updated != null && updated.getStatus() != statusBefore) {
+            userCacheInvalidationPublisher.invalidate(user.getId());
+        }
 
         log.info("User logged in: {}", user.getEmail());
 
         // 2FA required
         if (Boolean.TRUE.equals(user.getTwoFactorEnabled())) {
             twoFactorAuthService.generateAndSendCode(user);
-            throw new IllegalStateException("TWO_FACTOR_REQUIRED");
+            return LoginOutcome.twoFactorRequired(user.getEmail());
         }
 
-        return buildTokenResponse(user);
+        return LoginOutcome.success(buildTokenResponse(user, request.getDeviceId()));
+    }
+
+    /**
+     * Counts a failed attempt in Redis, writing Mongo only when the account becomes locked.
+     * Without Redis, falls back to an atomic $inc with a server-side lock decision on the User document.
+     *
+     * @return the user's state after any Mongo write, or null if nothing was written
+     */
+    private User recordFailedLogin(User user, String clientIp) {
+        return switch (loginThrottleService.recordFailure(user.getEmail(), clientIp)) {
+            case COUNTED -> null;
+            case LOCKED -> userRepository.lockAccount(user.getId(), LocalDateTime.now().plus(User.LOCK_DURATION));
+            case NOT_TRACKED -> userRepository.recordFailedLogin(user.getId());
+        };
+    }
+
+    /**
+     * Re-hash a correct password whose stored hash no longer matches the current policy.
+     * Returns the new hash for the caller's login update, or null when no upgrade is needed or
+     * the hashing pool is saturated (retried on the next login).
+     */
+    private String upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return null;
+        }
+        try {
+            String upgraded = passwordHashingService.encode(rawPassword);
+            user.setPassword(upgraded);
+            log.info("🔐 Password hash upgraded for user: {}", user.getId());
+            return upgraded;
+        } catch (ServiceOverloadedException e) {
+            log.debug("Skipping password hash upgrade for {}: hashing pool saturated", user.getId());
+            return null;
+        }
     }
 
     /**
@@ -169,18 +211,18 @@ public class AuthService {
     public TokenResponse verifyTwoFactor(TwoFactorRequest request) {
 
         User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid credentials"));
 
         if (!Boolean.TRUE.equals(user.getTwoFactorEnabled())) {
-            throw new IllegalStateException("2FA not enabled");
+            throw new ConflictException("2FA not enabled");
         }
 
         if (!twoFactorAuthService.verifyCode(user, request.getCode())) {
-            throw new BadCredentialsException("Invalid 2FA code");
+            throw new InvalidCredentialsException("Invalid 2FA code");
         }
 
         log.info("2FA verified for {}", user.getEmail());
-        return buildTokenResponse(user);
+        return buildTokenResponse(user, request.getDeviceId());
     }
 
     /**
@@ -201,17 +243,87 @@ public class AuthService {
     }
 
     /**
-     * Refresh access token
+     * Verify email using the token from the verification email
+     */
+    public void verifyEmail(EmailVerificationRequest request) {
+        passwordResetService.verifyEmail(request.getToken());
+    }
+
+    /**
+     * Refresh access token.
+     * Rotates the device's refresh session in Redis and answers from it, without reading Mongo.
+     * The presented refresh token stops being valid; presenting it again ends the session.
      */
-    @Transactional
     public TokenResponse refreshToken(String refreshToken) {
 
-        String userId = jwtTokenProvider.getUserId(refreshToken);
+        ParsedToken token = parseRefreshToken(refreshToken);
+
+        if (token.getDeviceId() == null || token.getRotation() == null) {
+            // Issued before refresh sessions existed: no session generation to check, so apply the
+            // user's not-before revocation and current status before starting a session
+            if (tokenRevocationService.isRevoked(token)) {
+                throw new InvalidCredentialsException("Refresh token is no longer valid");
+            }
+            User user = userRepository.findById(token.getUserId())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            if (user.getStatus() == UserStatus.SUSPENDED ||
+                    user.getStatus() == UserStatus.BANNED ||
+                    user.getStatus() == UserStatus.DELETED) {
+                throw new InvalidCredentialsException("Account is suspended or inactive");
+            }
+            return buildTokenResponse(user, null);
+        }
+
+        RefreshSession session = refreshSessionStore.rotate(
+                token.getUserId(), token.getDeviceId(), token.getRotation());
+        if (session.isStale()) {
+            // Profile changed since the session started: one read to refresh the embedded claims
+            User user = userRepository.findById(token.getUserId())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            session = refreshSessionStore.recreate(user, session, permissionsFor(user.getRole()));
+        }
+        return buildTokenResponse(session);
+    }
+
+    /**
+     * Log out one device by ending the session its refresh token belongs to,
+     * and revoke the device's current access token if it was sent along
+     */
+    public void logout(String refreshToken, String accessToken) {
+        ParsedToken token = parseRefreshToken(refreshToken);
+        if (token.getDeviceId() != null) {
+            refreshSessionStore.revoke(token.getUserId(), token.getDeviceId());
+        }
+
+        if (accessToken != null) {
+            try {
+                ParsedToken access = jwtTokenProvider.parseToken(accessToken);
+                if (access.isAccessToken() && token.getUserId().equals(access.getUserId())) {
+                    tokenRevocationService.revokeToken(access.getTokenId(), access.getExpiresAt());
+                }
+            } catch (IllegalArgumentException e) {
+                // Expired or invalid: nothing left to revoke
+            }
+        }
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    /**
+     * Log out every device of the user, including access tokens already handed out
+     */
+    public void logoutAll(String userId) {
+        refreshSessionStore.revokeAll(userId);
+        tokenRevocationService.revokeUser(userId);
+    }
 
-        return buildTokenResponse(user);
+    private ParsedToken parseRefreshToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new IllegalArgumentException("Refresh token is required");
+        }
+        ParsedToken token = jwtTokenProvider.parseToken(refreshToken);
+        if (!token.isRefreshToken()) {
+            throw new IllegalArgumentException("Not a refresh token");
+        }
+        return token;
     }
 
     /* =========================================================
@@ -234,11 +346,8 @@ public class AuthService {
         // ✅ Validate against STATIC admin roles list
         boolean isStaticAdminRole = ADMIN_ROLES.contains(requestedRole);
 
-        // ✅ Validate against DYNAMIC admin_roles collection
-        boolean isDynamicAdminRole = adminRoleRepository
-                .findByRoleName(requestedRole)
-                .map(role -> Boolean.TRUE.equals(role.getIsActive()))
-                .orElse(false);
+        // ✅ Validate against DYNAMIC admin_roles collection (compiled in memory, no DB lookup)
+        boolean isDynamicAdminRole = permissionRegistry.isActiveRole(requestedRole);
 
         if (!isStaticAdminRole && !isDynamicAdminRole) {
             throw new IllegalArgumentException(
@@ -247,18 +356,9 @@ public class AuthService {
             );
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email already in use");
-        }
-
-        if (request.getPhoneNumber() != null &&
-                userRepository.existsByPhoneNumber(request.getPhoneNumber())) {
-            throw new IllegalArgumentException("Phone number already in use");
-        }
-
         User user = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .phoneNumber(request.getPhoneNumber())
@@ -269,23 +369,102 @@ public class AuthService {
                 .failedLoginAttempts(0)
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = insertUser(user);
 
         log.info("✅ Admin user created: {} ({})",
                 savedUser.getEmail(), savedUser.getRole());
 
-        return buildTokenResponse(savedUser);
+        return buildTokenResponse(savedUser, null);
     }
 
     /**
-     * Shared token creation logic (SINGLE SOURCE OF TRUTH)
+     * Self-registered user with the role's initial status.
+     * Shared with {@link BulkUserImportService}.
+     */
+    User newUser(RegisterRequest request, String encodedPassword) {
+
+        // ✅ Set status based on role
+        UserStatus initialStatus;
+        if (request.getRole() == UserRole.TEACHER) {
+            initialStatus = UserStatus.PENDING_VERIFICATION; // or whatever enum value you use
+        } else {
+            initialStatus = UserStatus.ACTIVE;
+        }
+
+        User user = User.builder()
+                .email(request.getEmail())
+                .password(encodedPassword)
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .phoneNumber(request.getPhoneNumber())
+                .role(request.getRole())
+                .status(initialStatus)            // ✅ use initialStatus
+                .emailVerified(false)
+                .twoFactorEnabled(false)
+                .failedLoginAttempts(0)
+                .build();
+
+        return user;
+    }
+
+    /**
+     * Insert a new user in one round-trip, relying on the unique indexes on email and
+     * phoneNumber instead of racy exists-then-save checks.
+     */
+    private User insertUser(User user) {
+        try {
+            return userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException(duplicateKeyMessage(e.getMessage()));
+        }
+    }
+
+    /**
+     * User-facing message for an E11000 error on the users collection, told apart by the name
+     * of the violated index ("... index: phoneNumber dup key: { ... }"), never by the key value
      */
-    private TokenResponse buildTokenResponse(User user) {
+    static String duplicateKeyMessage(String errorMessage) {
+        Matcher matcher = errorMessage != null ? DUPLICATE_KEY_INDEX.matcher(errorMessage) : null;
+        if (matcher != null && matcher.find() && User.PHONE_NUMBER_INDEX.equals(matcher.group(1))) {
+            return "Phone number already in use";
+        }
+        return "Email already in use";
+    }
 
-        String accessToken = jwtTokenProvider.generateAccessToken(
-                user.getId(), user.getEmail(), user.getRole());
+    /**
+     * Starts a refresh session for the device (a new one when the client sent no device id)
+     * and issues its tokens
+     */
+    private TokenResponse buildTokenResponse(User user, String deviceId) {
+        String device = deviceId != null && !deviceId.isBlank() ? deviceId : UUID.randomUUID().toString();
+        return buildTokenResponse(refreshSessionStore.create(user, device, permissionsFor(user.getRole())));
+    }
+
+    /**
+     * Permissions of an admin role, taken at login and then carried by the refresh session
+     */
+    private List<String> permissionsFor(UserRole role) {
+        return role != null ? permissionRegistry.permissionsOf(role.name()) : List.of();
+    }
 
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId());
+    /**
+     * Shared token creation logic (SINGLE SOURCE OF TRUTH)
+     */
+    private TokenResponse buildTokenResponse(RefreshSession session) {
+
+        String accessToken = jwtTokenProvider.generateAccessToken(AccessTokenClaims.builder()
+                .userId(session.getUserId())
+                .email(session.getEmail())
+                .role(session.getRole())
+                .status(session.getStatus())
+                .emailVerified(session.getEmailVerified())
+                .displayName(displayName(session.getFirstName(), session.getLastName()))
+                .permissions(session.getPermissions())
+                .profileVersion(session.getProfileVersion())
+                .build());
+
+        String refreshToken = jwtTokenProvider.generateRefreshToken(
+                session.getUserId(), session.getDeviceId(), session.getRotation());
 
         return TokenResponse.builder()
                 .accessToken(accessToken)
@@ -293,15 +472,20 @@ public class AuthService {
                 .expiresIn(jwtTokenProvider.getAccessTokenExpiry())
                 .user(
                         UserProfileResponse.builder()
-                                .id(user.getId())
-                                .email(user.getEmail())
-                                .firstName(user.getFirstName())
-                                .lastName(user.getLastName())
-                                .role(user.getRole())
-                                .status(user.getStatus())
-                                .emailVerified(user.getEmailVerified())
+                                .id(session.getUserId())
+                                .email(session.getEmail())
+                                .firstName(session.getFirstName())
+                                .lastName(session.getLastName())
+                                .role(session.getRole())
+                                .status(session.getStatus())
+                                .emailVerified(session.getEmailVerified())
                                 .build()
                 )
                 .build();
     }
-}
\ No newline at end of file
+
+    private static String displayName(String firstName, String lastName) {
+        String name = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        return name.isEmpty() ? null : name;
+    }
+}
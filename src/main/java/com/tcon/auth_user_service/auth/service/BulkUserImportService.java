@@ -0,0 +1,378 @@
+package com.tcon.auth_user_service.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.tcon.auth_user_service.auth.dto.RegisterRequest;
+import com.tcon.auth_user_service.auth.dto.UserImportResult;
+import com.tcon.auth_user_service.auth.security.PasswordHashingService;
+import com.tcon.auth_user_service.event.UserEventPublisher;
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk registration for onboarding a school's students and parents.
+ *
+ * Rows are read lazily and processed in chunks: validate, hash the chunk's passwords in
+ * parallel on the hashing pool, insert with one unordered bulk write, publish the chunk's
+ * USER_CREATED events together and stream one NDJSON result per row. Memory stays bounded
+ * by the chunk size regardless of file size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkUserImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final Set<UserRole> IMPORTABLE_ROLES = EnumSet.of(UserRole.STUDENT, UserRole.PARENT);
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final AuthService authService;
+    private final PasswordHashingService passwordHashingService;
+    private final PasswordResetService passwordResetService;
+    private final MongoTemplate mongoTemplate;
+    private final UserEventPublisher userEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.user-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.user-import.max-rows:100000}")
+    private int maxRows;
+
+    /**
+     * 0 = half of the hashing pool, leaving the rest for interactive logins
+     */
+    @Value("${app.user-import.hashing-concurrency:0}")
+    private int hashingConcurrency;
+
+    /**
+     * Imports every row of {@code input} and writes one {@link UserImportResult} line per row to {@code output}
+     */
+    public void importUsers(BufferedReader input, String format, OutputStream output) throws IOException {
+        RowReader reader = FORMAT_CSV.equals(format) ? new CsvRowReader(input) : new NdjsonRowReader(input);
+        int concurrency = hashingConcurrency > 0
+                ? hashingConcurrency
+                : Math.max(1, passwordHashingService.getPoolSize() / 2);
+
+        long rowNumber = 0;
+        int created = 0;
+        int failed = 0;
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        long startedAt = System.currentTimeMillis();
+        RawRow raw;
+        while ((raw = reader.next()) != null) {
+            rowNumber++;
+            if (rowNumber > maxRows) {
+                writeResult(output, failure(rowNumber, null, "Import limited to " + maxRows + " rows"));
+                failed++;
+                break;
+            }
+
+            PendingRow row = new PendingRow(rowNumber, raw);
+            if (row.error == null) {
+                chunk.add(row);
+            } else {
+                writeResult(output, failure(rowNumber, row.email(), row.error));
+                failed++;
+            }
+
+            if (chunk.size() >= chunkSize) {
+                int ok = processChunk(chunk, concurrency, output);
+                created += ok;
+                failed += chunk.size() - ok;
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            int ok = processChunk(chunk, concurrency, output);
+            created += ok;
+            failed += chunk.size() - ok;
+        }
+
+        log.info("✅ Bulk user import finished: {} created, {} failed in {} ms",
+                created, failed, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * @return number of users created from this chunk
+     */
+    private int processChunk(List<PendingRow> chunk, int concurrency, OutputStream output) throws IOException {
+        List<String> hashes = passwordHashingService.encodeAll(
+                chunk.stream().map(row -> row.request.getPassword()).toList(), concurrency);
+
+        // Ids and audit dates are assigned up front: bulk inserts don't hand generated ids back,
+        // and auditing treats an entity with an id as "not new" and would skip createdAt
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            User user = authService.newUser(chunk.get(i).request, hashes.get(i));
+            user.setId(new ObjectId().toHexString());
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            users.add(user);
+        }
+
+        Map<Integer, String> errors = insert(users);
+
+        List<User> inserted = new ArrayList<>(users.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingRow row = chunk.get(i);
+            String error = errors.get(i);
+            if (error == null) {
+                inserted.add(users.get(i));
+                writeResult(output, UserImportResult.builder()
+                        .row(row.rowNumber)
+                        .email(row.email())
+                        .status(UserImportResult.CREATED)
+                        .userId(users.get(i).getId())
+                        .build());
+            } else {
+                writeResult(output, failure(row.rowNumber, row.email(), error));
+            }
+        }
+        output.flush();
+
+        if (!inserted.isEmpty()) {
+            passwordResetService.sendEmailVerification(inserted);
+        }
+        userEventPublisher.publishUsersCreated(inserted);
+        return inserted.size();
+    }
+
+    /**
+     * One unordered bulk insert; a failing document does not stop the rest.
+     *
+     * @return error message by index into {@code users}, empty if everything was inserted
+     */
+    private Map<Integer, String> insert(List<User> users) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                    .insert(users)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            return toErrorMessages(e.getErrors());
+        } catch (DataAccessException e) {
+            // Duplicate keys are translated to DuplicateKeyException with the bulk error as cause
+            if (e.getCause() instanceof MongoBulkWriteException bulkWriteException) {
+                return toErrorMessages(bulkWriteException.getWriteErrors());
+            }
+            throw e;
+        }
+    }
+
+    private static Map<Integer, String> toErrorMessages(List<BulkWriteError> writeErrors) {
+        return writeErrors.stream().collect(Collectors.toMap(
+                BulkWriteError::getIndex,
+                error -> error.getCode() == DUPLICATE_KEY_ERROR
+                        ? AuthService.duplicateKeyMessage(error.getMessage())
+                        : error.getMessage(),
+                (first, second) -> first));
+    }
+
+    private void writeResult(OutputStream output, UserImportResult result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write('\n');
+    }
+
+    private static UserImportResult failure(long rowNumber, String email, String error) {
+        return UserImportResult.builder()
+                .row(rowNumber)
+                .email(email)
+                .status(UserImportResult.FAILED)
+                .error(error)
+                .build();
+    }
+
+    /* =========================================================
+       Row parsing
+       ========================================================= */
+
+    /**
+     * A parsed row, or the reason it could not be parsed
+     */
+    private record RawRow(RegisterRequest request, String error) {
+    }
+
+    private final class PendingRow {
+        private final long rowNumber;
+        private final RegisterRequest request;
+        private final String error;
+
+        private PendingRow(long rowNumber, RawRow raw) {
+            this.rowNumber = rowNumber;
+            this.request = raw.request();
+            this.error = raw.error() != null ? raw.error() : validate(raw.request());
+        }
+
+        private String email() {
+            return request != null ? request.getEmail() : null;
+        }
+    }
+
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!IMPORTABLE_ROLES.contains(request.getRole())) {
+            return "Role not allowed in bulk import: " + request.getRole() + ". Allowed roles: " + IMPORTABLE_ROLES;
+        }
+        return null;
+    }
+
+    private interface RowReader {
+        /**
+         * @return the next row, or {@code null} at end of input
+         */
+        RawRow next() throws IOException;
+    }
+
+    /**
+     * One {@link RegisterRequest} JSON object per line; blank lines are skipped
+     */
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader input;
+
+        private NdjsonRowReader(BufferedReader input) {
+            this.input = input;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            String line;
+            do {
+                line = input.readLine();
+            } while (line != null && line.isBlank());
+
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new RawRow(objectMapper.readValue(line, RegisterRequest.class), null);
+            } catch (IOException e) {
+                return new RawRow(null, "Malformed JSON row");
+            }
+        }
+    }
+
+    /**
+     * Header row naming the RegisterRequest fields (any order), then one user per line.
+     * Supports double-quoted fields with "" escapes; quoted fields may not span lines.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader input;
+        private Map<String, Integer> columns;
+
+        private CsvRowReader(BufferedReader input) {
+            this.input = input;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            if (columns == null) {
+                String header = input.readLine();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                List<String> names = split(header);
+                for (int i = 0; i < names.size(); i++) {
+                    columns.put(names.get(i).trim(), i);
+                }
+            }
+
+            String line;
+            do {
+                line = input.readLine();
+            } while (line != null && line.isBlank());
+
+            if (line == null) {
+                return null;
+            }
+
+            List<String> values = split(line);
+            UserRole role;
+            try {
+                String roleValue = value(values, "role");
+                role = roleValue != null ? UserRole.valueOf(roleValue.toUpperCase(Locale.ROOT)) : null;
+            } catch (IllegalArgumentException e) {
+                return new RawRow(null, "Invalid role: " + value(values, "role"));
+            }
+
+            return new RawRow(RegisterRequest.builder()
+                    .email(value(values, "email"))
+                    .password(value(values, "password"))
+                    .firstName(value(values, "firstName"))
+                    .lastName(value(values, "lastName"))
+                    .phoneNumber(value(values, "phoneNumber"))
+                    .role(role)
+                    .build(), null);
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tcon.auth_user_service.auth.service;
+
+import com.tcon.auth_user_service.auth.dto.TokenResponse;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of {@link AuthService#login}. Wrong passwords, locked accounts and 2FA challenges are
+ * ordinary outcomes of a login, so they are returned rather than thrown: no stack capture, no
+ * exception handler, and no error log for something that happens on every mistyped password.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LoginOutcome {
+
+    public enum Status {
+        SUCCESS,
+        TWO_FACTOR_REQUIRED,
+        LOCKED,
+        INVALID
+    }
+
+    public static final LoginOutcome INVALID =
+            new LoginOutcome(Status.INVALID, null, null, "Invalid email or password", null);
+
+    public static final LoginOutcome INACTIVE =
+            new LoginOutcome(Status.LOCKED, null, null, "Account is suspended or inactive", null);
+
+    private final Status status;
+
+    /**
+     * Issued tokens, only for {@link Status#SUCCESS}
+     */
+    private final TokenResponse tokens;
+
+    /**
+     * Where the 2FA code was sent, only for {@link Status#TWO_FACTOR_REQUIRED}
+     */
+    private final String email;
+
+    private final String message;
+
+    /**
+     * End of a temporary lock; null for suspended / banned accounts
+     */
+    private final LocalDateTime lockedUntil;
+
+    public static LoginOutcome success(TokenResponse tokens) {
+        return new LoginOutcome(Status.SUCCESS, tokens, null, null, null);
+    }
+
+    public static LoginOutcome twoFactorRequired(String email) {
+        return new LoginOutcome(Status.TWO_FACTOR_REQUIRED, null, email,
+                "A verification code has been sent", null);
+    }
+
+    public static LoginOutcome lockedUntil(LocalDateTime lockedUntil) {
+        return new LoginOutcome(Status.LOCKED, null, null,
+                "Account locked until " + lockedUntil, lockedUntil);
+    }
+}
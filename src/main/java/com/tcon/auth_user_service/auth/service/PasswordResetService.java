@@ -1,19 +1,25 @@
 package com.tcon.auth_user_service.auth.service;
 
+import com.tcon.auth_user_service.auth.security.LoginThrottleService;
+import com.tcon.auth_user_service.auth.security.OneTimeTokenStore;
+import com.tcon.auth_user_service.auth.security.PasswordHashingService;
+import com.tcon.auth_user_service.auth.security.RefreshSessionStore;
+import com.tcon.auth_user_service.auth.security.TokenRevocationService;
 import com.tcon.auth_user_service.client.NotificationClient;
+import com.tcon.auth_user_service.client.NotificationDeliveryQueue;
 import com.tcon.auth_user_service.client.dto.EmailNotificationRequest;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
 import com.tcon.auth_user_service.user.entity.User;
 import com.tcon.auth_user_service.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -21,9 +27,17 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class PasswordResetService {
 
+    static final Duration EMAIL_VERIFICATION_TTL = Duration.ofDays(1);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final NotificationClient notificationClient;
+    private final NotificationDeliveryQueue notificationDeliveryQueue;
+    private final OneTimeTokenStore oneTimeTokenStore;
+    private final RefreshSessionStore refreshSessionStore;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottleService loginThrottleService;
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
 
     @Value("${app.password-reset.token-expiration}")
     private long tokenExpirationMs;
@@ -36,14 +50,9 @@ public class PasswordResetService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with email: " + email));
 
-        // Generate random token
-        String token = RandomStringUtils.randomAlphanumeric(32);
-        long expirationHours = tokenExpirationMs / 3600000;
-
-        // Save token to user
-        user.setPasswordResetToken(token);
-        user.setPasswordResetTokenExpiry(LocalDateTime.now().plusHours(expirationHours));
-        userRepository.save(user);
+        // Stored hashed in Redis with a TTL; issuing a new token revokes the previous one
+        String token = oneTimeTokenStore.issue(
+                OneTimeTokenStore.Purpose.PASSWORD_RESET, user.getId(), Duration.ofMillis(tokenExpirationMs));
 
         log.info("Password reset token created for email: {}", email);
 
@@ -69,38 +78,69 @@ public class PasswordResetService {
 
     @Transactional
     public void resetPassword(String token, String newPassword) {
-        User user = userRepository.findByPasswordResetToken(token)
+        // Reject unknown / expired tokens before paying for a hash
+        oneTimeTokenStore.peek(OneTimeTokenStore.Purpose.PASSWORD_RESET, token)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid or expired reset token"));
 
-        if (user.getPasswordResetTokenExpiry() == null ||
-                user.getPasswordResetTokenExpiry().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Reset token has expired");
-        }
+        String encodedPassword = passwordHashingService.encode(newPassword);
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordResetToken(null);
-        user.setPasswordResetTokenExpiry(null);
-        user.resetFailedAttempts();
-        userRepository.save(user);
+        String userId = oneTimeTokenStore.consume(OneTimeTokenStore.Purpose.PASSWORD_RESET, token)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid or expired reset token"));
+
+        User user = userRepository.resetPassword(userId, encodedPassword);
+        if (user == null) {
+            throw new IllegalArgumentException("Invalid or expired reset token");
+        }
+        // A reset also unlocks the account, including the login throttle's lock
+        userCacheInvalidationPublisher.invalidate(userId);
+        loginThrottleService.clearAccount(user.getEmail());
+        // ...and signs out every device that knew the old password
+        refreshSessionStore.revokeAll(userId);
+        tokenRevocationService.revokeUser(userId);
 
         log.info("Password reset successful for user: {}", user.getEmail());
     }
 
+    /**
+     * Issues email verification tokens (one pipelined Redis round-trip) and queues the
+     * verification emails. Best effort: the accounts already exist, so a Redis outage or a full
+     * notification queue must not fail the registration or import.
+     */
+    public void sendEmailVerification(List<User> users) {
+        Map<String, String> tokens;
+        try {
+            tokens = oneTimeTokenStore.issueAll(OneTimeTokenStore.Purpose.EMAIL_VERIFICATION,
+                    users.stream().map(User::getId).toList(), EMAIL_VERIFICATION_TTL);
+        } catch (Exception e) {
+            log.warn("⚠️ Email verification tokens not issued for {} users: {}", users.size(), e.getMessage());
+            return;
+        }
+
+        for (User user : users) {
+            Map<String, Object> emailPayload = new HashMap<>();
+            emailPayload.put("name", user.getFirstName() + " " + user.getLastName());
+            emailPayload.put("verificationLink", frontendUrl + "/verify-email?token=" + tokens.get(user.getId()));
+
+            notificationDeliveryQueue.enqueue(EmailNotificationRequest.builder()
+                    .to(user.getEmail())
+                    .templateCode("EMAIL_VERIFICATION")
+                    .payload(emailPayload)
+                    .build());
+        }
+        log.info("📧 Email verification queued for {} users", users.size());
+    }
+
     @Transactional
     public void verifyEmail(String token) {
-        User user = userRepository.findByEmailVerificationToken(token)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid verification token"));
+        String userId = oneTimeTokenStore.consume(OneTimeTokenStore.Purpose.EMAIL_VERIFICATION, token)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid or expired verification token"));
 
-        if (user.getEmailVerificationTokenExpiry() == null ||
-                user.getEmailVerificationTokenExpiry().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Verification token has expired");
+        if (!userRepository.markEmailVerified(userId)) {
+            throw new IllegalArgumentException("Invalid or expired verification token");
         }
+        // The emailVerified claim of the user's tokens changed
+        userCacheInvalidationPublisher.invalidate(userId);
 
-        user.setEmailVerified(true);
-        user.setEmailVerificationToken(null);
-        user.setEmailVerificationTokenExpiry(null);
-        userRepository.save(user);
-
-        log.info("Email verified for user: {}", user.getEmail());
+        log.info("Email verified for user: {}", userId);
     }
-}
\ No newline at end of file
+}
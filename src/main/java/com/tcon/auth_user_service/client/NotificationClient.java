@@ -23,23 +23,30 @@ public class NotificationClient {
      */
     public void sendEmail(EmailNotificationRequest request) {
         try {
-            String url = notificationServiceUrl + "/api/notifications/email";
-
-            log.info("📧 Sending email notification to: {}", request.getTo());
-            log.info("📧 Template: {}", request.getTemplateCode());
-
-            String response = restTemplate.postForObject(
-                    url,
-                    request,
-                    String.class
-            );
-
-            log.info("✅ Email notification sent successfully: {}", response);
-
+            deliverEmail(request);
         } catch (Exception ex) {
             log.error("❌ Failed to send email notification", ex);
             // Don't throw - we don't want password reset to fail if email fails
             // The token is still created and valid
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Same POST as {@link #sendEmail} but failures propagate, for callers that retry
+     * (see {@link NotificationDeliveryQueue})
+     */
+    public void deliverEmail(EmailNotificationRequest request) {
+        String url = notificationServiceUrl + "/api/notifications/email";
+
+        log.info("📧 Sending email notification to: {}", request.getTo());
+        log.info("📧 Template: {}", request.getTemplateCode());
+
+        String response = restTemplate.postForObject(
+                url,
+                request,
+                String.class
+        );
+
+        log.info("✅ Email notification sent successfully: {}", response);
+    }
+}
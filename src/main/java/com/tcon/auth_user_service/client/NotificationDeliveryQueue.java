@@ -0,0 +1,189 @@
+package com.tcon.auth_user_service.client;
+
+import com.tcon.auth_user_service.client.dto.EmailNotificationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Bounded in-process queue for notification emails that must not block a request thread
+ * (2FA codes during login).
+ *
+ * Worker threads drain up to {@code batch-size} deliveries per wake-up and send them back to back
+ * over the pooled connection; the notification service has no batch endpoint, so a batch is a
+ * burst of single POSTs. Failed deliveries are re-queued with exponential backoff up to
+ * {@code max-attempts}. When the queue is full new deliveries are dropped and counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDeliveryQueue {
+
+    private final NotificationClient notificationClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notifications.delivery.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.delivery.workers:2}")
+    private int workers;
+
+    @Value("${app.notifications.delivery.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.notifications.delivery.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.delivery.initial-backoff:PT1S}")
+    private Duration initialBackoff;
+
+    @Value("${app.notifications.delivery.max-backoff:PT30S}")
+    private Duration maxBackoff;
+
+    private BlockingQueue<Delivery> queue;
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private Timer deliveryLatency;
+    private Counter delivered;
+    private Counter retried;
+    private Counter failed;
+    private Counter dropped;
+
+    private record Delivery(EmailNotificationRequest request, int attempt, long enqueuedAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("notification.delivery.queue.depth", queue, BlockingQueue::size)
+                .description("Notifications waiting for a delivery worker")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("notification.delivery.latency")
+                .description("Time from enqueue to successful delivery, including retries")
+                .register(meterRegistry);
+        this.delivered = outcomeCounter("delivered");
+        this.retried = outcomeCounter("retried");
+        this.failed = outcomeCounter("failed");
+        this.dropped = outcomeCounter("dropped");
+
+        this.running = true;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("notification-retry-"));
+        this.workerPool = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("notification-delivery-"));
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::runWorker);
+        }
+
+        log.info("✅ NotificationDeliveryQueue started (workers: {}, capacity: {}, batchSize: {}, maxAttempts: {})",
+                workers, queueCapacity, batchSize, maxAttempts);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdownNow();
+        if (!queue.isEmpty()) {
+            log.warn("⚠️ {} queued notifications discarded on shutdown", queue.size());
+        }
+    }
+
+    /**
+     * Queues an email for delivery and returns immediately
+     *
+     * @return {@code false} if the queue is full and the email was dropped
+     */
+    public boolean enqueue(EmailNotificationRequest request) {
+        if (queue.offer(new Delivery(request, 1, System.nanoTime()))) {
+            return true;
+        }
+        dropped.increment();
+        log.error("❌ Notification queue full, dropped {} email to: {}", request.getTemplateCode(), request.getTo());
+        return false;
+    }
+
+    private void runWorker() {
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Delivery first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                for (Delivery delivery : batch) {
+                    deliver(delivery);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(Delivery delivery) {
+        try {
+            notificationClient.deliverEmail(delivery.request());
+            delivered.increment();
+            deliveryLatency.record(System.nanoTime() - delivery.enqueuedAt(), TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            if (delivery.attempt() >= maxAttempts) {
+                failed.increment();
+                log.error("❌ Giving up on {} email to {} after {} attempts: {}",
+                        delivery.request().getTemplateCode(), delivery.request().getTo(),
+                        delivery.attempt(), e.getMessage());
+                return;
+            }
+            scheduleRetry(delivery, e);
+        }
+    }
+
+    private void scheduleRetry(Delivery delivery, Exception cause) {
+        long backoffMs = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() << Math.min(delivery.attempt() - 1, 20));
+        Delivery next = new Delivery(delivery.request(), delivery.attempt() + 1, delivery.enqueuedAt());
+
+        retried.increment();
+        log.warn("⚠️ {} email to {} failed (attempt {}), retrying in {} ms: {}",
+                delivery.request().getTemplateCode(), delivery.request().getTo(),
+                delivery.attempt(), backoffMs, cause.getMessage());
+
+        try {
+            retryScheduler.schedule(() -> {
+                if (!queue.offer(next)) {
+                    dropped.increment();
+                    log.error("❌ Notification queue full, dropped retry of email to: {}", next.request().getTo());
+                }
+            }, backoffMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            dropped.increment();
+        }
+    }
+
+    private Counter outcomeCounter(String outcome) {
+        return Counter.builder("notification.delivery")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
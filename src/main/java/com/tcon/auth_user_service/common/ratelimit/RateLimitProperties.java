@@ -0,0 +1,71 @@
+package com.tcon.auth_user_service.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint request limits for the public auth endpoints ({@code app.security.rate-limit}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Idle buckets are dropped after this long; a dropped bucket restarts full
+     */
+    private Duration bucketExpiry = Duration.ofMinutes(10);
+
+    private long maxBuckets = 500_000;
+
+    /**
+     * Keyed by a short name used in metrics and Redis keys, e.g. "login"
+     */
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Data
+    public static class Endpoint {
+
+        /**
+         * Exact request path, e.g. /api/auth/login
+         */
+        private String path;
+
+        private String method = "POST";
+
+        private Limit perIp;
+
+        private Limit perAccount;
+
+        /**
+         * JSON body field naming the account (e.g. "email"); required for per-account limits
+         */
+        private String accountField;
+
+        /**
+         * Requests per second across all replicas, enforced in Redis; 0 = no global budget
+         */
+        private int globalPerSecond;
+    }
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Burst size
+         */
+        private int capacity;
+
+        /**
+         * Sustained rate the bucket refills at
+         */
+        private int perMinute;
+    }
+}
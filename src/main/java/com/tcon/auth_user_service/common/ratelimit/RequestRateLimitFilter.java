@@ -0,0 +1,295 @@
+package com.tcon.auth_user_service.common.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tcon.auth_user_service.common.web.ClientIpResolver;
+import com.tcon.auth_user_service.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-rate limits for the public auth endpoints, enforced before Spring Security and the
+ * controllers so rejected requests cost neither BCrypt nor a notification.
+ *
+ * Each configured endpoint may have an in-memory token bucket per client IP and per account
+ * (taken from a JSON body field), plus a Redis-backed budget shared by all replicas. Buckets are
+ * lock-free ({@link TokenBucket}) and live in a Caffeine map, whose striped hash table keeps
+ * concurrent lookups for different clients from contending; idle buckets expire.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String GLOBAL_KEY_PREFIX = "ratelimit:global:";
+
+    // Login / registration bodies are tiny; bigger ones are refused rather than let past the account limit
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    // Decoded, without ;params or duplicate slashes: the path the controllers are matched on
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final RateLimitProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ClientIpResolver clientIpResolver;
+
+    private Cache<String, TokenBucket> buckets;
+    private Map<String, Route> routes;
+    private RedisScript<Long> globalBudgetScript;
+
+    private record Route(String name, RateLimitProperties.Endpoint endpoint,
+                         Counter ipRejections, Counter accountRejections, Counter globalRejections) {
+    }
+
+    @PostConstruct
+    public void init() {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getBucketExpiry())
+                .build();
+        this.globalBudgetScript = RedisScript.of(new ClassPathResource("scripts/rate-limit-global.lua"), Long.class);
+
+        Map<String, Route> byPath = new HashMap<>();
+        properties.getEndpoints().forEach((name, endpoint) -> byPath.put(
+                endpoint.getMethod().toUpperCase(Locale.ROOT) + " " + endpoint.getPath(),
+                new Route(name, endpoint,
+                        rejectionCounter(name, "ip"),
+                        rejectionCounter(name, "account"),
+                        rejectionCounter(name, "global"))));
+        this.routes = Map.copyOf(byPath);
+
+        log.info("✅ RequestRateLimitFilter initialized (enabled: {}, endpoints: {})",
+                properties.isEnabled(), properties.getEndpoints().keySet());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || route(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Route route = route(request);
+        RateLimitProperties.Endpoint endpoint = route.endpoint();
+        long now = System.nanoTime();
+
+        long wait = acquire(route.name() + "|ip|" + clientIpResolver.resolve(request), endpoint.getPerIp(), now);
+        if (wait > 0) {
+            reject(response, route.ipRejections(), wait);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        if (endpoint.getPerAccount() != null && endpoint.getAccountField() != null) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request);
+            if (cached == null) {
+                rejectTooLarge(response);
+                return;
+            }
+            forwarded = cached;
+            String account = accountOf(cached.body, endpoint.getAccountField());
+            if (account != null) {
+                wait = acquire(route.name() + "|acct|" + account, endpoint.getPerAccount(), now);
+                if (wait > 0) {
+                    reject(response, route.accountRejections(), wait);
+                    return;
+                }
+            }
+        }
+
+        if (endpoint.getGlobalPerSecond() > 0 && !withinGlobalBudget(route)) {
+            reject(response, route.globalRejections(), TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    private Route route(HttpServletRequest request) {
+        return routes.get(request.getMethod() + " " + PATH_HELPER.getPathWithinApplication(request));
+    }
+
+    /**
+     * @return 0 if allowed (or no limit configured), otherwise nanoseconds until allowed
+     */
+    private long acquire(String key, RateLimitProperties.Limit limit, long now) {
+        if (limit == null || limit.getCapacity() <= 0 || limit.getPerMinute() <= 0) {
+            return 0;
+        }
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / limit.getPerMinute();
+        return buckets.get(key, k -> new TokenBucket(limit.getCapacity(), intervalNanos, now))
+                .tryAcquire(now);
+    }
+
+    private boolean withinGlobalBudget(Route route) {
+        String key = GLOBAL_KEY_PREFIX + route.name() + ":" + (System.currentTimeMillis() / 1000);
+        try {
+            Long allowed = stringRedisTemplate.execute(globalBudgetScript, List.of(key),
+                    String.valueOf(route.endpoint().getGlobalPerSecond()));
+            return allowed == null || allowed == 1;
+        } catch (Exception e) {
+            // The per-node buckets still apply; don't take login down with Redis
+            log.warn("⚠️ Global rate limit skipped, Redis unavailable: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private String accountOf(byte[] body, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            return value != null && value.isTextual() && !value.asText().isBlank()
+                    ? value.asText().trim().toLowerCase(Locale.ROOT)
+                    : null;
+        } catch (IOException e) {
+            // Malformed JSON is rejected by the controller's validation
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, Counter counter, long waitNanos) throws IOException {
+        counter.increment();
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .message("Too many requests. Please try again later.")
+                .error("Too Many Requests")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.PAYLOAD_TOO_LARGE.value())
+                .message("Request body too large")
+                .error("Payload Too Large")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private Counter rejectionCounter(String endpoint, String scope) {
+        return Counter.builder("http.rate-limit.rejected")
+                .description("Requests rejected by the auth endpoint rate limiter")
+                .tag("endpoint", endpoint)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads the (small) body once so the account can be taken from it, and replays it downstream
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * Reads the body from the stream whatever Content-Length says (it is absent when chunked)
+         *
+         * @return the wrapped request, or {@code null} if the body is larger than {@link #MAX_BODY_BYTES}
+         */
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            return body.length > MAX_BODY_BYTES ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is in memory: it is available at once and then fully read
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.tcon.auth_user_service.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time"
+ * in an {@link AtomicLong}, advanced by one emission interval per accepted request with a CAS.
+ * Equivalent to a bucket of {@code capacity} tokens refilled at one token per interval.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, long intervalNanos, long now) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = capacity * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.tcon.auth_user_service.common.web;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves the originating client address for per-IP throttling and rate limits.
+ *
+ * X-Forwarded-For is only honoured when the request arrives from a configured trusted proxy
+ * (app.security.trusted-proxies, addresses or CIDR ranges). The header is then walked from the
+ * right, skipping hops appended by trusted proxies; the first untrusted hop is the client.
+ * Entries further left were sent by the client and may be forged. With no trusted proxies
+ * configured the header is ignored and the socket address is used.
+ */
+@Slf4j
+@Component
+public class ClientIpResolver {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    @Value("${app.security.trusted-proxies:}")
+    private String trustedProxies;
+
+    private List<IpAddressMatcher> trusted;
+
+    @PostConstruct
+    public void init() {
+        this.trusted = Arrays.stream(trustedProxies.split(","))
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        log.info("✅ ClientIpResolver initialized (trusted proxies: {})", trusted.size());
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (forwardedFor == null || !isTrusted(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            address = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrusted(String address) {
+        for (IpAddressMatcher matcher : trusted) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not an IP literal (forged or garbled hop): never a trusted proxy
+                return false;
+            }
+        }
+        return false;
+    }
+}
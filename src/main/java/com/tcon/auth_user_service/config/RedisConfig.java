@@ -1,10 +1,23 @@
 package com.tcon.auth_user_service.config;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tcon.auth_user_service.auth.security.PermissionRegistry;
+import com.tcon.auth_user_service.auth.security.TokenRevocationService;
+import com.tcon.auth_user_service.event.UserCacheInvalidationListener;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -29,11 +42,57 @@ public class RedisConfig {
         template.setHashKeySerializer(new StringRedisSerializer());
 
         // JSON values
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        GenericJackson2JsonRedisSerializer valueSerializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper());
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
 
         template.afterPropertiesSet();
         log.info("✅ Redis Template configured successfully");
         return template;
     }
+
+    /**
+     * Class name stored with every non-final value, so reads come back as the type written (final
+     * types such as String and LocalDateTime are read from the declared property type), plus
+     * java.time support for DTO timestamps. Only application and JDK types may be instantiated
+     * from Redis.
+     */
+    private static ObjectMapper redisObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        PolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.tcon.auth_user_service.")
+                .allowIfSubType("java.")
+                .build();
+        mapper.activateDefaultTyping(typeValidator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return mapper;
+    }
+
+    /**
+     * Pub/sub subscriptions used to fan cache invalidations, token revocations and admin role
+     * changes out to every replica
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            UserCacheInvalidationListener userCacheInvalidationListener,
+            TokenRevocationService tokenRevocationService,
+            PermissionRegistry permissionRegistry) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(userCacheInvalidationListener,
+                new ChannelTopic(UserCacheInvalidationPublisher.CHANNEL));
+        container.addMessageListener(tokenRevocationService,
+                new ChannelTopic(TokenRevocationService.CHANNEL));
+        container.addMessageListener(permissionRegistry,
+                new ChannelTopic(PermissionRegistry.CHANNEL));
+
+        log.info("✅ Redis pub/sub listener container configured");
+        return container;
+    }
 }
@@ -1,11 +1,18 @@
 package com.tcon.auth_user_service.config;
 
+import com.tcon.auth_user_service.auth.security.AdminPermissionEvaluator;
 import com.tcon.auth_user_service.auth.security.JwtAuthenticationFilter;
+import com.tcon.auth_user_service.auth.security.PasswordCostCalibrator;
+import com.tcon.auth_user_service.auth.security.PermissionRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -13,11 +20,17 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 @Slf4j
 @Configuration
 @EnableWebSecurity
@@ -25,8 +38,40 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.password-hashing.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${app.password-hashing.target-latency:PT0.25S}")
+    private Duration targetLatency;
+
+    @Value("${app.password-hashing.bcrypt.strength:12}")
+    private int bcryptStrength;
+
+    @Value("${app.password-hashing.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${app.password-hashing.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${app.password-hashing.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${app.password-hashing.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${app.password-hashing.argon2.iterations:0}")
+    private int argon2Iterations;
+
+    @Value("${app.password-hashing.argon2.max-iterations:10}")
+    private int argon2MaxIterations;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         log.info("Configuring Security Filter Chain (auth-user-service)");
@@ -46,8 +91,11 @@ public class SecurityConfig {
                                 "/api/auth/login",
                                 "/api/auth/password/reset-request",
                                 "/api/auth/password/reset",
+                                "/api/auth/email/verify",
                                 "/api/auth/refresh-token",
+                                "/api/auth/logout",
                                 "/api/auth/health",
+                                "/.well-known/jwks.json",
 
                                 // ✅ NEWLY ADDED (from second code)
                                 "/api/teacher/top-rated",
@@ -99,9 +147,59 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Delegating encoder: new hashes use {@code app.password-hashing.algorithm} and carry an
+     * {@code {id}} prefix; legacy unprefixed hashes are still matched as BCrypt. A work factor of
+     * 0 means "calibrate against target-latency at startup". Hashes with another id, or a lower
+     * cost than the current policy, are reported by {@code upgradeEncoding} and re-hashed on login.
+     * Never re-hashing downwards keeps replicas that calibrated different costs from flip-flopping.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : PasswordCostCalibrator.calibrateBCryptStrength(targetLatency, bcryptMinStrength, bcryptMaxStrength);
+
+        int iterations = argon2Iterations;
+        if (iterations <= 0) {
+            iterations = ARGON2.equals(algorithm)
+                    ? PasswordCostCalibrator.calibrateArgon2Iterations(targetLatency, ARGON2_SALT_LENGTH,
+                            ARGON2_HASH_LENGTH, argon2Parallelism, argon2MemoryKib, 1, argon2MaxIterations)
+                    : 1;
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+        encoders.put(ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                argon2Parallelism, argon2MemoryKib, iterations));
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported app.password-hashing.algorithm: " + algorithm
+                    + ". Allowed: " + BCRYPT + ", " + ARGON2);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        if (BCRYPT.equals(algorithm)) {
+            log.info("✅ Password encoder: bcrypt (strength {})", strength);
+        } else {
+            log.info("✅ Password encoder: argon2 (memory {} KiB, iterations {}, parallelism {})",
+                    argon2MemoryKib, iterations, argon2Parallelism);
+        }
+        return encoder;
+    }
+
+    /**
+     * Enables {@code hasPermission(...)} in method security, evaluated against the compiled
+     * admin-role bitsets. Static so it does not pull this configuration in early.
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            ObjectProvider<PermissionRegistry> permissionRegistry) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(new AdminPermissionEvaluator(permissionRegistry));
+        return handler;
     }
 
     @Bean
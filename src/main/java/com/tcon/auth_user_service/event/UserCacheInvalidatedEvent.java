@@ -0,0 +1,16 @@
+package com.tcon.auth_user_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * In-process signal that cached state for a user (status, profile, ...) is stale.
+ * Raised locally by {@link UserCacheInvalidationPublisher} and again on every
+ * replica when the Redis broadcast arrives.
+ */
+@Data
+@AllArgsConstructor
+public class UserCacheInvalidatedEvent {
+
+    private String userId;
+}
@@ -0,0 +1,28 @@
+package com.tcon.auth_user_service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Receives invalidations broadcast by any replica and re-raises them as local events.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener implements MessageListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Received cache invalidation for user: {}", userId);
+        applicationEventPublisher.publishEvent(new UserCacheInvalidatedEvent(userId));
+    }
+}
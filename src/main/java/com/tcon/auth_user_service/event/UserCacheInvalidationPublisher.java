@@ -0,0 +1,46 @@
+package com.tcon.auth_user_service.event;
+
+import com.tcon.auth_user_service.auth.security.RefreshSessionStore;
+import com.tcon.auth_user_service.user.service.UserProfileCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates per-user caches on this node immediately and on every other replica
+ * through Redis pub/sub. Kafka is not used here because all replicas share one
+ * consumer group, so a user-events message only reaches a single node.
+ * Shared (Redis) caches are cleared here, once, before the broadcast goes out.
+ * Also marks the user's refresh sessions stale, so claims embedded in new access tokens follow.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationPublisher {
+
+    public static final String CHANNEL = "user-cache-invalidation";
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RefreshSessionStore refreshSessionStore;
+    private final UserProfileCache userProfileCache;
+
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+
+        userProfileCache.evictShared(userId);
+        applicationEventPublisher.publishEvent(new UserCacheInvalidatedEvent(userId));
+
+        try {
+            refreshSessionStore.markProfileChanged(userId);
+            stringRedisTemplate.convertAndSend(CHANNEL, userId);
+        } catch (Exception e) {
+            // Local caches are already clean; other replicas fall back to their TTL
+            log.error("❌ Failed to broadcast cache invalidation for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.stereotype.Component;
 @ConditionalOnProperty(name = "spring.kafka.enabled", havingValue = "true", matchIfMissing = false)
 public class UserEventListener {
 
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
+
     @KafkaListener(topics = "user-events", groupId = "auth-user-service-group")
     public void handleUserEvent(UserCreatedEvent event) {
         log.info("Received user event: {} for userId: {}", event.getEventType(), event.getUserId());
@@ -23,9 +25,12 @@ public class UserEventListener {
                 break;
             case "USER_UPDATED":
                 log.info("Processing user update for: {}", event.getEmail());
+                // Only this node gets the Kafka message; the invalidation reaches every replica
+                userCacheInvalidationPublisher.invalidate(event.getUserId());
                 break;
             case "USER_DELETED":
                 log.info("Processing user deletion for userId: {}", event.getUserId());
+                userCacheInvalidationPublisher.invalidate(event.getUserId());
                 break;
             default:
                 log.warn("Unknown event type: {}", event.getEventType());
@@ -8,7 +8,10 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component
@@ -52,6 +55,54 @@ public class UserEventPublisher {
         }
     }
 
+    /**
+     * Publishes USER_CREATED for a batch of users: all records are handed to the producer
+     * (which batches them per partition) and a single summary is logged when they complete.
+     */
+    public void publishUsersCreated(List<User> users) {
+        if (kafkaTemplate == null || users.isEmpty()) {
+            log.debug("Kafka disabled - Skipping {} UserCreatedEvents", users.size());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            UserCreatedEvent event = UserCreatedEvent.builder()
+                    .userId(user.getId())
+                    .email(user.getEmail())
+                    .firstName(user.getFirstName())
+                    .lastName(user.getLastName())
+                    .phoneNumber(user.getPhoneNumber())
+                    .role(user.getRole())
+                    .timestamp(now)
+                    .eventType("USER_CREATED")
+                    .build();
+
+            try {
+                futures.add(kafkaTemplate.send(TOPIC, user.getId(), event)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                failed.incrementAndGet();
+                            }
+                        }));
+            } catch (Exception e) {
+                failed.incrementAndGet();
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((result, ex) -> {
+                    if (failed.get() == 0) {
+                        log.info("✅ {} UserCreatedEvents published", users.size());
+                    } else {
+                        log.error("❌ {} of {} UserCreatedEvents failed to publish", failed.get(), users.size());
+                    }
+                });
+    }
+
     public void publishUserUpdated(User user) {
         if (kafkaTemplate == null) {
             log.debug("Kafka disabled - Skipping UserUpdatedEvent");
@@ -0,0 +1,13 @@
+package com.tcon.auth_user_service.exception;
+
+/**
+ * The request conflicts with the current state of the resource (e.g. an already processed
+ * verification). Mapped to 409 by {@link GlobalExceptionHandler}.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        // An expected outcome, not a fault; no stack trace to capture or log
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.tcon.auth_user_service.exception;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * {@link BadCredentialsException} without a stack trace. Wrong codes and stale tokens are client
+ * mistakes, not faults, so the stack walk would only be paid for and then thrown away.
+ */
+public class InvalidCredentialsException extends BadCredentialsException {
+
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
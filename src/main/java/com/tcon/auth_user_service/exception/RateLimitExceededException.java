@@ -0,0 +1,19 @@
+package com.tcon.auth_user_service.exception;
+
+import lombok.Getter;
+
+/**
+ * The caller exceeded a request or login-attempt limit.
+ * Mapped to 429 with a Retry-After header by {@link GlobalExceptionHandler}.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        // Expected under load; no stack trace to capture or log
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
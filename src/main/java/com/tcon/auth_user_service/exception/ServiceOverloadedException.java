@@ -0,0 +1,19 @@
+package com.tcon.auth_user_service.exception;
+
+import lombok.Getter;
+
+/**
+ * A bounded resource (e.g. the password hashing pool) is saturated.
+ * Mapped to 503 with a Retry-After header by {@link GlobalExceptionHandler}.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        // Expected under load; no stack trace to capture or log
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
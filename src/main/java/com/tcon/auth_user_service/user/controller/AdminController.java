@@ -1,18 +1,29 @@
 package com.tcon.auth_user_service.user.controller;
 
 import com.tcon.auth_user_service.user.dto.*;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
 import com.tcon.auth_user_service.user.service.AdminAnalyticsService;
 import com.tcon.auth_user_service.user.service.AdminService;
 import com.tcon.auth_user_service.user.service.TeacherVerificationService;
+import com.tcon.auth_user_service.user.service.UserExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Slf4j
@@ -25,6 +36,7 @@ public class AdminController {
     private final AdminService adminService;
     private final TeacherVerificationService verificationService;
     private final AdminAnalyticsService adminAnalyticsService;
+    private final UserExportService userExportService;
 
 
     /* =====================================================
@@ -63,8 +75,49 @@ public class AdminController {
        ===================================================== */
 
     @GetMapping("/users")
-    public ResponseEntity<List<UserProfileDto>> getAllUsers() {
-        return ResponseEntity.ok(adminService.getAllUsers());
+    public ResponseEntity<CursorPage<UserProfileDto>> getUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(adminService.getUsers(role, status, cursor, size));
+    }
+
+    /**
+     * Streams every matching user as NDJSON (default) or CSV.
+     * Also open to admin roles holding the EXPORT_USERS permission (finance, support).
+     */
+    @PreAuthorize("hasPermission(null, 'EXPORT_USERS')")
+    @GetMapping("/users/export")
+    public void exportUsers(
+            @RequestParam(defaultValue = UserExportService.FORMAT_NDJSON) String format,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            HttpServletResponse response
+    ) throws IOException {
+        // Validated before the response is committed, so errors still map to a 400
+        String exportFormat = format.toLowerCase(Locale.ROOT);
+        boolean csv = UserExportService.FORMAT_CSV.equals(exportFormat);
+        if (!csv && !UserExportService.FORMAT_NDJSON.equals(exportFormat)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+
+        log.info("User export requested (format: {}, role: {}, status: {}, created: {} - {})",
+                exportFormat, role, status, createdFrom, createdTo);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users-" + LocalDate.now() + "." + exportFormat + "\"");
+
+        userExportService.export(role, status, createdFrom, createdTo, exportFormat, response.getOutputStream());
     }
 
     @PutMapping("/users/{userId}/suspend")
@@ -1,7 +1,9 @@
 package com.tcon.auth_user_service.user.controller;
 
 import com.tcon.auth_user_service.user.dto.ContactDto;
+import com.tcon.auth_user_service.user.dto.CursorPage;
 import com.tcon.auth_user_service.user.dto.UserProfileDto;
+import com.tcon.auth_user_service.user.dto.UserSuggestionDto;
 import com.tcon.auth_user_service.user.entity.UserRole;
 import com.tcon.auth_user_service.user.service.ContactService;
 import com.tcon.auth_user_service.user.service.UserSearchService;
@@ -54,33 +56,51 @@ public class UserController {
         }
     }
 
+    /**
+     * Autocomplete on names and email, e.g. ?q=jo%20sm
+     * Staff only: suggestions expose names and email addresses of all active users
+     */
+    @GetMapping("/search/typeahead")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public List<UserSuggestionDto> typeahead(
+            @RequestParam String q,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) Integer limit) {
+
+        return userSearchService.typeahead(q, role, limit);
+    }
+
     /**
      * =========================================
-     * GET ALL STUDENTS (FOR TEACHER USE ONLY)
+     * LIST STUDENTS, PAGINATED (FOR TEACHER USE ONLY)
      * =========================================
      */
     @PreAuthorize("hasRole('TEACHER')")
     @GetMapping("/students")
-    public List<UserProfileDto> getAllStudents() {
+    public CursorPage<UserProfileDto> getAllStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
 
-        log.info("Teacher requested list of all students");
+        log.info("Teacher requested list of students");
 
-        return userSearchService.searchByRole(UserRole.STUDENT);
+        return userSearchService.listUsers(UserRole.STUDENT, null, cursor, size);
     }
 
     /**
-     * Batch fetch users
+     * Batch fetch users: one entry per requested id, in request order, with
+     * {@code found: false} for unknown ids. 400 if the batch exceeds the configured maximum.
      */
     @PostMapping("/batch")
     public ResponseEntity<List<UserProfileDto>> getUsersByIds(
             @RequestBody BatchUserRequest request) {
 
-        log.info("Batch request for {} users", request.getUserIds().size());
-
         try {
             List<UserProfileDto> users =
                     userSearchService.getUsersByIds(request.getUserIds());
             return ResponseEntity.ok(users);
+        } catch (IllegalArgumentException e) {
+            log.warn("Batch request rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("❌ Batch fetch failed with exception: {}", e.getMessage(), e);
             return ResponseEntity.ok(List.of());
@@ -1,5 +1,6 @@
 package com.tcon.auth_user_service.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.tcon.auth_user_service.user.entity.UserRole;
 import com.tcon.auth_user_service.user.entity.UserStatus;
 import lombok.AllArgsConstructor;
@@ -10,7 +11,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserProfileDto {
@@ -32,6 +33,12 @@ public class UserProfileDto {
     private String gradeId;
     private String gradeName;
 
+    /**
+     * Set only in batch lookups: false marks a requested id with no user (all other fields null)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean found;
+
     public String getFullName() {
 
         if (firstName == null && lastName == null) {
@@ -0,0 +1,24 @@
+package com.tcon.auth_user_service.user.dto;
+
+import com.tcon.auth_user_service.user.entity.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typeahead match: just enough to render a suggestion
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSuggestionDto {
+
+    private String id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private UserRole role;
+    private String profilePictureUrl;
+}
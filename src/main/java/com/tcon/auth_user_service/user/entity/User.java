@@ -5,22 +5,41 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+// Keyset pagination: every filter combination the listing supports reads straight off an index
+@CompoundIndexes({
+        @CompoundIndex(name = "created_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "role_created_id", def = "{'role': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_created_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "role_status_created_id", def = "{'role': 1, 'status': 1, 'createdAt': -1, '_id': -1}")
+})
 public class User {
 
+    public static final int MAX_FAILED_ATTEMPTS = 5;
+    public static final Duration LOCK_DURATION = Duration.ofMinutes(30);
+
+    // Unique index names, matched against E11000 errors to tell which value was taken.
+    // Same as the names Spring Data derived before they were pinned, so existing indexes are kept
+    public static final String EMAIL_INDEX = "email";
+    public static final String PHONE_NUMBER_INDEX = "phoneNumber";
+
     @Id
     private String id;
 
-    @Indexed(unique = true)
+    @Indexed(name = EMAIL_INDEX, unique = true)
     private String email;
 
     private String password;
@@ -30,7 +49,7 @@ public class User {
     private String lastName;
 
     // Fixed: sparse = true allows null values (not all users need phone)
-    @Indexed(unique = true, sparse = true)
+    @Indexed(name = PHONE_NUMBER_INDEX, unique = true, sparse = true)
     private String phoneNumber;
 
     @Builder.Default
@@ -55,18 +74,15 @@ public class User {
 
     private LocalDateTime lockedUntil;
 
-    // Password Reset
-    private String passwordResetToken;
-
-    private LocalDateTime passwordResetTokenExpiry;
-
     // Email Verification
     @Builder.Default
     private Boolean emailVerified = false;
 
-    private String emailVerificationToken;
+    // Password reset / email verification tokens live in OneTimeTokenStore (Redis, hashed, TTL)
 
-    private LocalDateTime emailVerificationTokenExpiry;
+    // Normalized name / email prefixes for typeahead; maintained by UserSearchKeysCallback
+    @Indexed
+    private List<String> searchKeys;
 
     // Auditing Fields
     @CreatedDate
@@ -92,8 +108,8 @@ public class User {
         this.failedLoginAttempts = (this.failedLoginAttempts == null ? 0 : this.failedLoginAttempts) + 1;
 
         // Lock account for 30 minutes after 5 failed attempts
-        if (this.failedLoginAttempts >= 5) {
-            this.lockedUntil = LocalDateTime.now().plusMinutes(30);
+        if (this.failedLoginAttempts >= MAX_FAILED_ATTEMPTS) {
+            this.lockedUntil = LocalDateTime.now().plus(LOCK_DURATION);
             this.status = UserStatus.LOCKED;
         }
     }
@@ -106,22 +122,8 @@ public class User {
         }
     }
 
-    public boolean isEmailVerificationTokenValid() {
-        return emailVerificationToken != null &&
-                emailVerificationTokenExpiry != null &&
-                emailVerificationTokenExpiry.isAfter(LocalDateTime.now());
-    }
-
-    public boolean isPasswordResetTokenValid() {
-        return passwordResetToken != null &&
-                passwordResetTokenExpiry != null &&
-                passwordResetTokenExpiry.isAfter(LocalDateTime.now());
-    }
-
     public void markEmailAsVerified() {
         this.emailVerified = true;
-        this.emailVerificationToken = null;
-        this.emailVerificationTokenExpiry = null;
         if (this.status == UserStatus.PENDING_VERIFICATION) {
             this.status = UserStatus.ACTIVE;
         }
@@ -0,0 +1,62 @@
+package com.tcon.auth_user_service.user.migration;
+
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.repository.UserSearchKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Backfills User.searchKeys for users saved before the keys existed (or after the normalization
+ * changed). Streams users and writes the keys with unordered bulk updates, without touching
+ * updatedAt or any other field. Safe to re-run.
+ */
+@Slf4j
+@Component
+@Profile("user-search-keys-migration")
+@RequiredArgsConstructor
+public class UserSearchKeysMigrationRunner implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        log.info("🚀 Starting user search keys migration...");
+
+        Query query = new Query().cursorBatchSize(BATCH_SIZE);
+        query.fields().include("firstName", "lastName", "email");
+
+        long updatedCount = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(user.getId())),
+                        new Update().set("searchKeys", UserSearchKeys.of(user)));
+
+                if (++pending == BATCH_SIZE) {
+                    updatedCount += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            updatedCount += bulk.execute().getModifiedCount();
+        }
+
+        log.info("✅ User search keys migration complete. Users updated: {}", updatedCount);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tcon.auth_user_service.user.repository;
+
+import com.tcon.auth_user_service.user.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the (createdAt desc, _id desc) listing order: the last user of the previous page.
+ * Clients only see it as an opaque URL-safe token.
+ *
+ * @param createdAt null for users created before auditing was enabled; those sort last
+ */
+public record UserPageCursor(LocalDateTime createdAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static UserPageCursor after(User user) {
+        return new UserPageCursor(user.getCreatedAt(), user.getId());
+    }
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a null or blank token (first page)
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static UserPageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        LocalDateTime createdAt;
+        int separator;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            separator = raw.indexOf(SEPARATOR);
+            createdAt = separator > 0 ? LocalDateTime.parse(raw.substring(0, separator)) : null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new UserPageCursor(createdAt, raw.substring(separator + 1));
+    }
+}
@@ -1,8 +1,6 @@
 package com.tcon.auth_user_service.user.repository;
 
 import com.tcon.auth_user_service.user.entity.User;
-import com.tcon.auth_user_service.user.entity.UserRole;
-import com.tcon.auth_user_service.user.entity.UserStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,34 +10,20 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
     Optional<User> findByEmail(String email);
 
     Optional<User> findByPhoneNumber(String phoneNumber);
 
-    Optional<User> findByEmailVerificationToken(String token);
-
-    Optional<User> findByPasswordResetToken(String token);
+    @Query(value = "{'_id': ?0}", fields = "{'status': 1}")
+    Optional<User> findStatusById(String id);
 
     boolean existsByEmail(String email);
 
     boolean existsByPhoneNumber(String phoneNumber);
 
-    List<User> findByRole(UserRole role);
-
-    List<User> findByStatus(UserStatus status);
-
     List<User> findByCreatedAtAfter(LocalDateTime date);
 
     List<User> findByLockedUntilBefore(LocalDateTime now);
-
-    @Query("{'firstName': {$regex: ?0, $options: 'i'}}")
-    List<User> searchByFirstName(String firstName);
-
-    @Query("{'lastName': {$regex: ?0, $options: 'i'}}")
-    List<User> searchByLastName(String lastName);
-
-    @Query("{$or: [{'firstName': {$regex: ?0, $options: 'i'}}, {'lastName': {$regex: ?0, $options: 'i'}}, {'email': {$regex: ?0, $options: 'i'}}]}")
-    List<User> searchByKeyword(String keyword);
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.tcon.auth_user_service.user.repository;
+
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Partial, atomic updates on {@link User} that must not go through a read-modify-write save,
+ * and projected reads for listings, exports, batch lookups and typeahead.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Atomically increments failedLoginAttempts and, once it reaches
+     * {@link User#MAX_FAILED_ATTEMPTS}, locks the account for {@link User#LOCK_DURATION}.
+     *
+     * @return status, failedLoginAttempts and lockedUntil after the update, or {@code null} if the user is gone
+     */
+    User recordFailedLogin(String userId);
+
+    /**
+     * Locks the account until {@code lockedUntil}; used when the failure count is kept outside Mongo.
+     *
+     * @return status after the update, or {@code null} if the user is gone
+     */
+    User lockAccount(String userId, LocalDateTime lockedUntil);
+
+    /**
+     * Sets lastLoginAt, clears the failed-attempt counter and lock (LOCKED becomes ACTIVE) and,
+     * when {@code upgradedPasswordHash} is non-null, replaces the stored hash - in one write.
+     *
+     * @return status after the update, or {@code null} if the user is gone
+     */
+    User recordSuccessfulLogin(String userId, String upgradedPasswordHash);
+
+    /**
+     * Replaces the password hash and clears the failed-attempt counter and lock, in one write.
+     *
+     * @return email and status after the update, or {@code null} if the user is gone
+     */
+    User resetPassword(String userId, String passwordHash);
+
+    /**
+     * @return {@code false} if the user is gone
+     */
+    boolean markEmailVerified(String userId);
+
+    /**
+     * One page of users, newest first, ordered by (createdAt desc, _id desc) and served from the
+     * matching compound index. Only the fields needed for a profile listing are loaded.
+     *
+     * @param role   optional filter
+     * @param status optional filter
+     * @param after  last user of the previous page, or null for the first page
+     */
+    List<User> findPage(UserRole role, UserStatus status, UserPageCursor after, int limit);
+
+    /**
+     * Every matching user, read lazily through a server-side cursor fetching {@code batchSize}
+     * documents at a time. Loads the same fields as {@link #findPage}. The caller must close the stream.
+     *
+     * @param createdFrom optional inclusive lower bound on createdAt
+     * @param createdTo   optional exclusive upper bound on createdAt
+     */
+    Stream<User> streamUsers(UserRole role, UserStatus status,
+                             LocalDateTime createdFrom, LocalDateTime createdTo, int batchSize);
+
+    /**
+     * Users with the given ids, loading the same fields as {@link #findPage}, in no particular order.
+     * Unknown ids are skipped.
+     */
+    List<User> findListedByIds(Collection<String> ids);
+
+    /**
+     * ACTIVE users having, for every prefix, a search key starting with it. Each prefix is an index
+     * range scan on searchKeys; prefixes must already be normalized (see {@link UserSearchKeys}).
+     * Loads only id, names, email, role and picture.
+     *
+     * @param role optional filter
+     */
+    List<User> findBySearchKeyPrefixes(List<String> prefixes, UserRole role, int limit);
+}
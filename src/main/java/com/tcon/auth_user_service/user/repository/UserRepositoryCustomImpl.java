@@ -0,0 +1,258 @@
+package com.tcon.auth_user_service.user.repository;
+
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Single-round-trip findAndModify updates for the login path.
+ * Pipeline updates let the lock decision be made server-side on the incremented value,
+ * so concurrent failed attempts are neither lost nor need a second write.
+ *
+ * Listing uses keyset pagination: each page starts strictly after the previous page's last
+ * (createdAt, _id), so the cost of a page does not grow with its position the way skip() does.
+ * Exports read through a cursor instead of materializing the result.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    // Everything a UserProfileDto shows; never the password hash or 2FA secret
+    private static final String[] LISTED_FIELDS = {
+            "email", "firstName", "lastName", "phoneNumber", "role", "status", "profilePictureUrl",
+            "twoFactorEnabled", "emailVerified", "lastLoginAt", "createdAt", "updatedAt"
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public User recordFailedLogin(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("failedLoginAttempts").toValue(
+                        ArithmeticOperators.valueOf(
+                                ConditionalOperators.ifNull("failedLoginAttempts").then(0)).add(1))
+                .set("lockedUntil").toValue(
+                        ConditionalOperators.when(reachedMaxAttempts())
+                                .then(toDate(now.plus(User.LOCK_DURATION)))
+                                .otherwiseValueOf("lockedUntil"))
+                .set("status").toValue(
+                        ConditionalOperators.when(reachedMaxAttempts())
+                                .then(UserStatus.LOCKED.name())
+                                .otherwiseValueOf("status"))
+                .set("updatedAt").toValue(toDate(now));
+
+        return mongoTemplate.findAndModify(
+                byId(userId, "status", "failedLoginAttempts", "lockedUntil"),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+    }
+
+    @Override
+    public User lockAccount(String userId, LocalDateTime lockedUntil) {
+        Update update = new Update()
+                .set("status", UserStatus.LOCKED)
+                .set("lockedUntil", lockedUntil)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.findAndModify(
+                byId(userId, "status"),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+    }
+
+    @Override
+    public User recordSuccessfulLogin(String userId, String upgradedPasswordHash) {
+        LocalDateTime now = LocalDateTime.now();
+
+        AggregationUpdate update = clearLockout(now)
+                .set("lastLoginAt").toValue(toDate(now));
+
+        if (upgradedPasswordHash != null) {
+            update = update.set("password").toValue(literal(upgradedPasswordHash));
+        }
+
+        return mongoTemplate.findAndModify(
+                byId(userId, "status"),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+    }
+
+    @Override
+    public User resetPassword(String userId, String passwordHash) {
+        AggregationUpdate update = clearLockout(LocalDateTime.now())
+                .set("password").toValue(literal(passwordHash));
+
+        return mongoTemplate.findAndModify(
+                byId(userId, "email", "status"),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+    }
+
+    @Override
+    public boolean markEmailVerified(String userId) {
+        Update update = new Update()
+                .set("emailVerified", true)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(byId(userId), update, User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<User> findPage(UserRole role, UserStatus status, UserPageCursor after, int limit) {
+        List<Criteria> filters = filters(role, status);
+        if (after != null) {
+            filters.add(startingAfter(after));
+        }
+
+        Query query = listingQuery(filters);
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+
+        return mongoTemplate.find(query, User.class);
+    }
+
+    @Override
+    public Stream<User> streamUsers(UserRole role, UserStatus status,
+                                    LocalDateTime createdFrom, LocalDateTime createdTo, int batchSize) {
+        List<Criteria> filters = filters(role, status);
+        if (createdFrom != null || createdTo != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (createdFrom != null) {
+                createdAt.gte(createdFrom);
+            }
+            if (createdTo != null) {
+                createdAt.lt(createdTo);
+            }
+            filters.add(createdAt);
+        }
+
+        // No sort: documents are returned as the index / collection scan yields them
+        Query query = listingQuery(filters);
+        query.cursorBatchSize(batchSize);
+
+        return mongoTemplate.stream(query, User.class);
+    }
+
+    @Override
+    public List<User> findListedByIds(Collection<String> ids) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("_id").in(ids));
+        return mongoTemplate.find(listingQuery(filters), User.class);
+    }
+
+    @Override
+    public List<User> findBySearchKeyPrefixes(List<String> prefixes, UserRole role, int limit) {
+        // Suspended, banned and deleted users must not be discoverable by name
+        List<Criteria> filters = filters(role, UserStatus.ACTIVE);
+        for (String prefix : prefixes) {
+            // $elemMatch keeps both bounds on the same array element, so the index scan stays tight
+            Criteria range = new Criteria().gte(prefix);
+            String end = UserSearchKeys.prefixEnd(prefix);
+            if (end != null) {
+                range.lt(end);
+            }
+            filters.add(Criteria.where("searchKeys").elemMatch(range));
+        }
+
+        Query query = new Query(new Criteria().andOperator(filters)).limit(limit);
+        query.fields().include("firstName", "lastName", "email", "role", "profilePictureUrl");
+        return mongoTemplate.find(query, User.class);
+    }
+
+    private static List<Criteria> filters(UserRole role, UserStatus status) {
+        List<Criteria> filters = new ArrayList<>();
+        if (role != null) {
+            filters.add(Criteria.where("role").is(role));
+        }
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status));
+        }
+        return filters;
+    }
+
+    private static Query listingQuery(List<Criteria> filters) {
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.fields().include(LISTED_FIELDS);
+        return query;
+    }
+
+    /**
+     * Users after the cursor in (createdAt desc, _id desc) order. A missing createdAt sorts below
+     * every date, so those users come after all dated ones.
+     */
+    private static Criteria startingAfter(UserPageCursor after) {
+        if (after.createdAt() == null) {
+            return new Criteria().andOperator(
+                    Criteria.where("createdAt").is(null),
+                    Criteria.where("_id").lt(after.id()));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(after.createdAt()),
+                new Criteria().andOperator(
+                        Criteria.where("createdAt").is(after.createdAt()),
+                        Criteria.where("_id").lt(after.id())),
+                Criteria.where("createdAt").is(null));
+    }
+
+    /**
+     * Reset the failed-attempt counter and lock; a LOCKED account becomes ACTIVE
+     */
+    private static AggregationUpdate clearLockout(LocalDateTime now) {
+        return AggregationUpdate.update()
+                .set("failedLoginAttempts").toValue(0)
+                .set("status").toValue(
+                        ConditionalOperators.when(ComparisonOperators.valueOf("status")
+                                        .equalToValue(UserStatus.LOCKED.name()))
+                                .then(UserStatus.ACTIVE.name())
+                                .otherwiseValueOf("status"))
+                .set("updatedAt").toValue(toDate(now))
+                .unset("lockedUntil");
+    }
+
+    // $literal: a bare "$2a$..." string would be read as a field path inside a pipeline
+    private static Object literal(String value) {
+        return LiteralOperators.valueOf(value).asLiteral();
+    }
+
+    private static Query byId(String userId, String... returnedFields) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include(returnedFields);
+        return query;
+    }
+
+    private static ComparisonOperators.Gte reachedMaxAttempts() {
+        return ComparisonOperators.valueOf("failedLoginAttempts").greaterThanEqualToValue(User.MAX_FAILED_ATTEMPTS);
+    }
+
+    // Pipeline values bypass entity conversion, so pass the same java.util.Date a save would store
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
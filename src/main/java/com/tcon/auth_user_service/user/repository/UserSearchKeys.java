@@ -0,0 +1,93 @@
+package com.tcon.auth_user_service.user.repository;
+
+import com.tcon.auth_user_service.user.entity.User;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized search keys for prefix search: lowercase, accents stripped, split on anything that
+ * is not a letter or digit. A user's keys are the tokens of their first and last name, the tokens
+ * of the email local part, and the local part with its punctuation removed
+ * ("mary-jo.o'neil@x.org" gives mary, jo, o, neil and maryjooneil).
+ */
+public final class UserSearchKeys {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_QUERY_TOKENS = 4;
+
+    private UserSearchKeys() {
+    }
+
+    public static List<String> of(User user) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.addAll(tokens(user.getFirstName()));
+        keys.addAll(tokens(user.getLastName()));
+
+        String email = user.getEmail();
+        if (email != null) {
+            int at = email.indexOf('@');
+            List<String> localTokens = tokens(at < 0 ? email : email.substring(0, at));
+            keys.addAll(localTokens);
+            if (localTokens.size() > 1) {
+                keys.add(truncate(String.join("", localTokens)));
+            }
+        }
+        return List.copyOf(keys);
+    }
+
+    /**
+     * The prefixes to look up for a typeahead query; empty if the query has no searchable characters
+     */
+    public static List<String> queryTokens(String query) {
+        List<String> tokens = tokens(query);
+        return tokens.size() > MAX_QUERY_TOKENS ? tokens.subList(0, MAX_QUERY_TOKENS) : tokens;
+    }
+
+    /**
+     * Exclusive upper bound of the keys starting with {@code prefix} in code point order, which is
+     * how MongoDB compares UTF-8 strings: the prefix with its last code point incremented. Appending
+     * U+FFFF is not enough, supplementary characters sort above it. Null when there is no bound
+     * (the prefix is empty or all U+10FFFF).
+     */
+    public static String prefixEnd(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            end -= Character.charCount(last);
+            if (last < Character.MAX_CODE_POINT) {
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return new StringBuilder(end + 2).append(prefix, 0, end).appendCodePoint(next).toString();
+            }
+        }
+        return null;
+    }
+
+    private static List<String> tokens(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(truncate(token));
+            }
+        }
+        return tokens;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+}
@@ -0,0 +1,19 @@
+package com.tcon.auth_user_service.user.repository;
+
+import com.tcon.auth_user_service.user.entity.User;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link User#getSearchKeys()} in step with the name and email on every save and insert,
+ * bulk inserts included.
+ */
+@Component
+public class UserSearchKeysCallback implements BeforeConvertCallback<User> {
+
+    @Override
+    public User onBeforeConvert(User user, String collection) {
+        user.setSearchKeys(UserSearchKeys.of(user));
+        return user;
+    }
+}
@@ -1,4 +1,5 @@
 package com.tcon.auth_user_service.user.service;
+import com.tcon.auth_user_service.auth.security.PermissionRegistry;
 import com.tcon.auth_user_service.user.dto.AdminRoleDto;
 import com.tcon.auth_user_service.user.entity.AdminRole;
 import com.tcon.auth_user_service.user.repository.AdminRoleRepository;
@@ -16,6 +17,7 @@ import java.util.stream.Collectors;
 public class AdminRoleService {
 
     private final AdminRoleRepository adminRoleRepository;
+    private final PermissionRegistry permissionRegistry;
 
     @Transactional
     public AdminRoleDto createRole(AdminRoleDto dto, String createdBy) {
@@ -32,6 +34,7 @@ public class AdminRoleService {
                 .build();
 
         AdminRole saved = adminRoleRepository.save(role);
+        permissionRegistry.roleChanged(saved.getRoleName());
         log.info("✅ Admin role created: {} by {}", saved.getRoleName(), createdBy);
         return toDto(saved);
     }
@@ -58,6 +61,7 @@ public class AdminRoleService {
         role.setIsActive(dto.getIsActive());
 
         AdminRole updated = adminRoleRepository.save(role);
+        permissionRegistry.roleChanged(updated.getRoleName());
         log.info("✅ Admin role updated: {}", updated.getRoleName());
         return toDto(updated);
     }
@@ -69,6 +73,7 @@ public class AdminRoleService {
 
         role.setIsActive(false);
         adminRoleRepository.save(role);
+        permissionRegistry.roleChanged(role.getRoleName());
         log.info("✅ Admin role deactivated: {}", role.getRoleName());
     }
 
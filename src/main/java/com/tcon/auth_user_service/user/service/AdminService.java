@@ -1,10 +1,16 @@
 package com.tcon.auth_user_service.user.service;
 
 
+import com.tcon.auth_user_service.auth.security.LoginThrottleService;
+import com.tcon.auth_user_service.auth.security.RefreshSessionStore;
+import com.tcon.auth_user_service.auth.security.TokenRevocationService;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
 import com.tcon.auth_user_service.user.dto.AdminDto;
+import com.tcon.auth_user_service.user.dto.CursorPage;
 import com.tcon.auth_user_service.user.dto.UserProfileDto;
 import com.tcon.auth_user_service.user.entity.AdminProfile;
 import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
 import com.tcon.auth_user_service.user.entity.UserStatus;
 import com.tcon.auth_user_service.user.repository.AdminRepository;
 import com.tcon.auth_user_service.user.repository.UserRepository;
@@ -15,9 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -25,6 +28,11 @@ public class AdminService {
 
     private final AdminRepository adminRepository;
     private final UserRepository userRepository;
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
+    private final LoginThrottleService loginThrottleService;
+    private final RefreshSessionStore refreshSessionStore;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserSearchService userSearchService;
 
     @Transactional
     public AdminDto createProfile(String userId, AdminDto dto) {
@@ -54,10 +62,8 @@ public class AdminService {
         return toDto(profile);
     }
 
-    public List<UserProfileDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toUserDto)
-                .collect(Collectors.toList());
+    public CursorPage<UserProfileDto> getUsers(UserRole role, UserStatus status, String cursor, Integer size) {
+        return userSearchService.listUsers(role, status, cursor, size);
     }
 
     @Transactional
@@ -84,6 +90,9 @@ public class AdminService {
 
         user.setStatus(UserStatus.SUSPENDED);
         userRepository.save(user);
+        userCacheInvalidationPublisher.invalidate(userId);
+        refreshSessionStore.revokeAll(userId);
+        tokenRevocationService.revokeUser(userId);
         log.info("User suspended: {}", userId);
     }
 
@@ -94,6 +103,8 @@ public class AdminService {
 
         user.setStatus(UserStatus.ACTIVE);
         userRepository.save(user);
+        userCacheInvalidationPublisher.invalidate(userId);
+        loginThrottleService.clearAccount(user.getEmail());
         log.info("User activated: {}", userId);
     }
 
@@ -104,6 +115,9 @@ public class AdminService {
 
         user.setStatus(UserStatus.DELETED);
         userRepository.save(user);
+        userCacheInvalidationPublisher.invalidate(userId);
+        refreshSessionStore.revokeAll(userId);
+        tokenRevocationService.revokeUser(userId);
         log.info("User deleted: {}", userId);
     }
 
@@ -118,20 +132,4 @@ public class AdminService {
                 .build();
     }
 
-    private UserProfileDto toUserDto(User user) {
-        return UserProfileDto.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .phoneNumber(user.getPhoneNumber())
-                .role(user.getRole())
-                .status(user.getStatus())
-                .profilePictureUrl(user.getProfilePictureUrl())
-                .twoFactorEnabled(user.getTwoFactorEnabled())
-                .emailVerified(user.getEmailVerified())
-                .lastLoginAt(user.getLastLoginAt())
-                .createdAt(user.getCreatedAt())
-                .build();
-    }
 }
\ No newline at end of file
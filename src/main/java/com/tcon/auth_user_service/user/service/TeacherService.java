@@ -1,5 +1,8 @@
 package com.tcon.auth_user_service.user.service;
 
+import com.tcon.auth_user_service.auth.security.RefreshSessionStore;
+import com.tcon.auth_user_service.auth.security.TokenRevocationService;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
 import com.tcon.auth_user_service.user.dto.*;
 import com.tcon.auth_user_service.user.entity.TeacherProfile;
 import com.tcon.auth_user_service.user.entity.TeacherVerification;
@@ -30,6 +33,9 @@ public class TeacherService {
     private final UserSearchService userSearchService;
     private final TeacherVerificationRepository teacherVerificationRepository;
     private final UserRepository userRepository;
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
+    private final RefreshSessionStore refreshSessionStore;
+    private final TokenRevocationService tokenRevocationService;
 
     /* =====================================================
        CREATE PROFILE
@@ -75,6 +81,7 @@ public class TeacherService {
                 if (user.getStatus() != UserStatus.ACTIVE) {
                     user.setStatus(UserStatus.ACTIVE);
                     userRepository.save(user);
+                    userCacheInvalidationPublisher.invalidate(userId);
                     log.info("✅ User {} activated because verification was already APPROVED", userId);
                 }
             });
@@ -124,6 +131,9 @@ public class TeacherService {
                     if (user.getStatus() != UserStatus.SUSPENDED) {
                         user.setStatus(UserStatus.SUSPENDED);
                         userRepository.save(user);
+                        userCacheInvalidationPublisher.invalidate(userId);
+                        refreshSessionStore.revokeAll(userId);
+                        tokenRevocationService.revokeUser(userId);
                         log.warn("🚫 Teacher {} auto-suspended due to rejected verification.", userId);
                     }
                 });
@@ -1,4 +1,6 @@
 package com.tcon.auth_user_service.user.service;
+import com.tcon.auth_user_service.event.UserCacheInvalidationPublisher;
+import com.tcon.auth_user_service.exception.ConflictException;
 import com.tcon.auth_user_service.user.dto.TeacherVerificationDto;
 import com.tcon.auth_user_service.user.entity.TeacherVerification;
 import com.tcon.auth_user_service.user.entity.UserStatus;
@@ -22,6 +24,7 @@ public class TeacherVerificationService {
     private final TeacherVerificationRepository verificationRepository;
     private final TeacherProfileRepository teacherProfileRepository;
     private final UserRepository userRepository;
+    private final UserCacheInvalidationPublisher userCacheInvalidationPublisher;
 
     /* =====================================================
        TEACHER SUBMITS VERIFICATION
@@ -42,7 +45,7 @@ public class TeacherVerificationService {
                 );
 
         if (!"PENDING".equals(verification.getStatus())) {
-            throw new IllegalStateException("Verification already processed");
+            throw new ConflictException("Verification already processed");
         }
 
         verification.setDocumentUrls(dto.getDocumentUrls());
@@ -110,7 +113,7 @@ public class TeacherVerificationService {
                 );
 
         if (!"PENDING".equals(verification.getStatus())) {
-            throw new IllegalStateException("Verification already processed");
+            throw new ConflictException("Verification already processed");
         }
 
         verification.setStatus("APPROVED");
@@ -132,6 +135,7 @@ public class TeacherVerificationService {
         userRepository.findById(verification.getTeacherUserId()).ifPresent(user -> {
             user.setStatus(UserStatus.ACTIVE);
             userRepository.save(user);
+            userCacheInvalidationPublisher.invalidate(user.getId());
             log.info("✅ Teacher {} User.status set to ACTIVE after approval",
                     verification.getTeacherUserId());
         });
@@ -157,7 +161,7 @@ public class TeacherVerificationService {
                 );
 
         if (!"PENDING".equals(verification.getStatus())) {
-            throw new IllegalStateException("Verification already processed");
+            throw new ConflictException("Verification already processed");
         }
 
         verification.setStatus("REJECTED");
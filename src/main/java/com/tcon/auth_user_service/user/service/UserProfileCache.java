@@ -0,0 +1,184 @@
+package com.tcon.auth_user_service.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tcon.auth_user_service.event.UserCacheInvalidatedEvent;
+import com.tcon.auth_user_service.user.dto.UserProfileDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link UserProfileDto} by user id: a per-node Caffeine tier in front of a
+ * Redis tier shared by all replicas, in front of Mongo.
+ *
+ * The node making a profile, status, 2FA or verification change drops the Redis entry once
+ * ({@link #evictShared}); every replica then drops its local entry on
+ * {@link UserCacheInvalidatedEvent}. lastLoginAt is not an invalidation trigger and may lag by up
+ * to the Redis TTL.
+ *
+ * The Redis eviction also bumps {@code user:profile:ver:<userId>}. A loader reads that version before
+ * going to Mongo and only writes its result to Redis if it is unchanged, so a read that started
+ * before an update cannot put the old profile back after the update evicted it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserProfileCache {
+
+    private static final String KEY_PREFIX = "user:profile:";
+    private static final String VERSION_KEY_PREFIX = "user:profile:ver:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-profile-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-profile-cache.local-ttl:PT30S}")
+    private Duration localTtl;
+
+    @Value("${app.user-profile-cache.local-max-size:50000}")
+    private long localMaxSize;
+
+    @Value("${app.user-profile-cache.redis-ttl:PT10M}")
+    private Duration redisTtl;
+
+    private Cache<String, UserProfileDto> local;
+    private RedisScript<Long> putScript;
+
+    private Counter localHits;
+    private Counter localMisses;
+    private Counter redisHits;
+    private Counter redisMisses;
+    private Counter redisErrors;
+
+    @PostConstruct
+    public void init() {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "user.profile");
+        this.putScript = RedisScript.of(new ClassPathResource("scripts/user-profile-cache-put.lua"), Long.class);
+
+        this.localHits = requestCounter("local", "hit");
+        this.localMisses = requestCounter("local", "miss");
+        this.redisHits = requestCounter("redis", "hit");
+        this.redisMisses = requestCounter("redis", "miss");
+        this.redisErrors = requestCounter("redis", "error");
+
+        log.info("✅ UserProfileCache initialized (enabled: {}, localTtl: {}, localMaxSize: {}, redisTtl: {})",
+                enabled, localTtl, localMaxSize, redisTtl);
+    }
+
+    /**
+     * @param loader reads the profile from Mongo; runs at most once per node for concurrent misses
+     *               on the same id. Its exceptions propagate and nothing is cached.
+     * @return a copy the caller may modify
+     */
+    public UserProfileDto get(String userId, Function<String, UserProfileDto> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+
+        UserProfileDto cached = local.getIfPresent(userId);
+        if (cached != null) {
+            localHits.increment();
+        } else {
+            localMisses.increment();
+            cached = local.get(userId, id -> loadThroughRedis(id, loader));
+        }
+        return cached.toBuilder().build();
+    }
+
+    /**
+     * Drops the user from the Redis tier. Called once per change by the publishing node, before
+     * the invalidation is broadcast; every node then only drops its local entry.
+     */
+    public void evictShared(String userId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Version first: a load already past its Redis read must not write back afterwards
+            String versionKey = VERSION_KEY_PREFIX + userId;
+            stringRedisTemplate.opsForValue().increment(versionKey);
+            stringRedisTemplate.expire(versionKey, redisTtl);
+            redisTemplate.delete(KEY_PREFIX + userId);
+        } catch (Exception e) {
+            // The Redis entry expires on its own; stale for at most the TTL
+            log.warn("⚠️ Failed to evict user profile {} from Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the user from this node only
+     */
+    public void evictLocal(String userId) {
+        local.invalidate(userId);
+    }
+
+    @EventListener
+    public void onUserCacheInvalidated(UserCacheInvalidatedEvent event) {
+        evictLocal(event.getUserId());
+        log.debug("User profile cache invalidated for: {}", event.getUserId());
+    }
+
+    private UserProfileDto loadThroughRedis(String userId, Function<String, UserProfileDto> loader) {
+        String key = KEY_PREFIX + userId;
+        String versionKey = VERSION_KEY_PREFIX + userId;
+        Long version = null;
+        try {
+            if (redisTemplate.opsForValue().get(key) instanceof UserProfileDto shared) {
+                redisHits.increment();
+                return shared;
+            }
+            redisMisses.increment();
+            String current = stringRedisTemplate.opsForValue().get(versionKey);
+            version = current != null ? Long.parseLong(current) : 0L;
+        } catch (Exception e) {
+            // Redis down or an unreadable entry: serve from Mongo
+            redisErrors.increment();
+            log.debug("User profile Redis read failed for {}: {}", userId, e.getMessage());
+        }
+
+        UserProfileDto profile = loader.apply(userId);
+        if (version == null) {
+            // Version unknown: not safe to share
+            return profile;
+        }
+        try {
+            // Arguments go through the template's JSON value serializer, like the profile it reads back
+            redisTemplate.execute(putScript, List.of(key, versionKey), version, redisTtl.toMillis(), profile);
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.debug("User profile Redis write failed for {}: {}", userId, e.getMessage());
+        }
+        return profile;
+    }
+
+    private Counter requestCounter(String tier, String result) {
+        return Counter.builder("user.profile.cache.requests")
+                .description("User profile cache lookups by tier and result")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
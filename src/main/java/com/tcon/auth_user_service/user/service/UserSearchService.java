@@ -1,15 +1,32 @@
 package com.tcon.auth_user_service.user.service;
 
+import com.tcon.auth_user_service.user.dto.CursorPage;
 import com.tcon.auth_user_service.user.dto.UserProfileDto;
+import com.tcon.auth_user_service.user.dto.UserSuggestionDto;
 import com.tcon.auth_user_service.user.entity.User;
 import com.tcon.auth_user_service.user.entity.UserRole;
 import com.tcon.auth_user_service.user.entity.UserStatus;
+import com.tcon.auth_user_service.user.repository.UserPageCursor;
 import com.tcon.auth_user_service.user.repository.UserRepository;
+import com.tcon.auth_user_service.user.repository.UserSearchKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -17,57 +34,186 @@ import java.util.List;
 public class UserSearchService {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
+    private final UserTypeaheadIndex userTypeaheadIndex;
 
-    public List<UserProfileDto> searchByRole(UserRole role) {
-        log.debug("Searching users by role: {}", role);
+    @Value("${app.user-listing.default-page-size:50}")
+    private int defaultPageSize;
 
-        return userRepository.findByRole(role)
-                .stream()
-                .map(this::toDto)
-                .toList();
-    }
+    @Value("${app.user-listing.max-page-size:200}")
+    private int maxPageSize;
 
-    public List<UserProfileDto> searchByStatus(UserStatus status) {
-        log.debug("Searching users by status: {}", status);
+    @Value("${app.user-batch.max-size:1000}")
+    private int maxBatchSize;
 
-        return userRepository.findByStatus(status)
-                .stream()
-                .map(this::toDto)
-                .toList();
+    /**
+     * Ids per $in query; bigger batches are split and the chunks queried in parallel
+     */
+    @Value("${app.user-batch.chunk-size:200}")
+    private int batchChunkSize;
+
+    @Value("${app.user-batch.parallelism:4}")
+    private int batchParallelism;
+
+    /**
+     * Shorter queries match too much of the user base to be useful
+     */
+    @Value("${app.user-search.typeahead.min-length:2}")
+    private int typeaheadMinLength;
+
+    @Value("${app.user-search.typeahead.default-limit:10}")
+    private int typeaheadDefaultLimit;
+
+    @Value("${app.user-search.typeahead.max-limit:25}")
+    private int typeaheadMaxLimit;
+
+    private ThreadPoolExecutor batchExecutor;
+
+    @PostConstruct
+    public void init() {
+        // Caller-runs: when every worker is busy, the request thread queries its own chunk
+        this.batchExecutor = new ThreadPoolExecutor(
+                batchParallelism, batchParallelism,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchParallelism * 4),
+                new CustomizableThreadFactory("user-batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        log.info("✅ UserSearchService initialized (batch max: {}, chunk: {}, parallelism: {})",
+                maxBatchSize, batchChunkSize, batchParallelism);
     }
 
-    public List<UserProfileDto> getAllUsers() {
-        log.debug("Retrieving all users");
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
+    }
 
-        return userRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .toList();
+    /**
+     * Keyset-paginated user listing, newest first. Filters are applied in the query and the page
+     * size is capped, so a page costs the same whether it is the first or the ten-thousandth.
+     *
+     * @param role   optional filter
+     * @param status optional filter
+     * @param cursor {@link CursorPage#getNextCursor()} of the previous page, or null for the first page
+     * @param size   requested page size; defaults and is capped server-side
+     */
+    public CursorPage<UserProfileDto> listUsers(UserRole role, UserStatus status, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        log.debug("Listing users (role: {}, status: {}, size: {})", role, status, pageSize);
+
+        // One extra row tells whether another page exists without a count query
+        List<User> users = userRepository.findPage(role, status, UserPageCursor.decode(cursor), pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        return CursorPage.<UserProfileDto>builder()
+                .items(users.stream().map(this::toDto).toList())
+                .nextCursor(hasMore ? UserPageCursor.after(users.get(users.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
+    /**
+     * Batch lookup for other services. Returns one entry per requested id, in request order;
+     * ids without a user get a {@code found = false} marker. Large batches are split into
+     * {@code $in} chunks queried in parallel, each loading only the fields of the DTO.
+     *
+     * @throws IllegalArgumentException if more than {@code app.user-batch.max-size} ids are requested
+     */
     public List<UserProfileDto> getUsersByIds(List<String> userIds) {
-        log.info("Fetching {} users by IDs", userIds.size());
-
-        return userRepository.findAllById(userIds)
-                .stream()
-                .map(user -> {
-                    try {
-                        return toDto(user);
-                    } catch (Exception e) {
-                        log.warn("Could not map user {} to DTO: {}", user.getId(), e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(dto -> dto != null)
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        if (userIds.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " user ids per batch");
+        }
+        log.debug("Fetching {} users by IDs", userIds.size());
+
+        List<String> distinct = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, User> usersById = new HashMap<>(distinct.size() * 2);
+        for (User user : findListedByIds(distinct)) {
+            usersById.put(user.getId(), user);
+        }
+
+        List<UserProfileDto> result = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            User user = usersById.get(userId);
+            if (user == null) {
+                result.add(UserProfileDto.builder().id(userId).found(false).build());
+                continue;
+            }
+            UserProfileDto dto = toDto(user);
+            dto.setFound(true);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private List<User> findListedByIds(List<String> ids) {
+        if (ids.size() <= batchChunkSize) {
+            return userRepository.findListedByIds(ids);
+        }
+
+        List<CompletableFuture<List<User>>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + batchChunkSize, ids.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> userRepository.findListedByIds(chunk), batchExecutor));
+        }
+
+        List<User> users = new ArrayList<>(ids.size());
+        try {
+            for (CompletableFuture<List<User>> chunk : chunks) {
+                users.addAll(chunk.join());
+            }
+        } catch (CompletionException e) {
+            chunks.forEach(chunk -> chunk.cancel(false));
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return users;
+    }
+
+    /**
+     * Prefix search on names and email for autocomplete: every word of the query must start one
+     * of the user's search keys ("jo sm" finds John Smith). Served from the in-memory index when
+     * it is enabled and built, otherwise by indexed range queries on searchKeys.
+     */
+    public List<UserSuggestionDto> typeahead(String query, UserRole role, Integer limit) {
+        List<String> prefixes = UserSearchKeys.queryTokens(query);
+        if (prefixes.isEmpty() || String.join("", prefixes).length() < typeaheadMinLength) {
+            return List.of();
+        }
+        int max = limit == null || limit <= 0 ? typeaheadDefaultLimit : Math.min(limit, typeaheadMaxLimit);
+
+        List<UserSuggestionDto> indexed = userTypeaheadIndex.search(prefixes, role, max);
+        if (indexed != null) {
+            return indexed;
+        }
+
+        return userRepository.findBySearchKeyPrefixes(prefixes, role, max).stream()
+                .map(user -> UserSuggestionDto.builder()
+                        .id(user.getId())
+                        .firstName(user.getFirstName())
+                        .lastName(user.getLastName())
+                        .email(user.getEmail())
+                        .role(user.getRole())
+                        .profilePictureUrl(user.getProfilePictureUrl())
+                        .build())
                 .toList();
     }
 
+    /**
+     * Served from {@link UserProfileCache}; only a miss in both tiers reads Mongo
+     */
     public UserProfileDto getUserById(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new IllegalArgumentException("User not found: " + userId));
-
-        return toDto(user);
+        return userProfileCache.get(userId, id -> {
+            List<User> users = userRepository.findListedByIds(List.of(id));
+            if (users.isEmpty()) {
+                throw new IllegalArgumentException("User not found: " + id);
+            }
+            return toDto(users.get(0));
+        });
     }
 
     public UserProfileDto getUserByEmail(String email) {
@@ -94,7 +240,7 @@ public class UserSearchService {
         return userRepository.existsByPhoneNumber(phoneNumber);
     }
 
-    private UserProfileDto toDto(User user) {
+    UserProfileDto toDto(User user) {
         return UserProfileDto.builder()
                 .id(user.getId())
                 .email(user.getEmail())
@@ -0,0 +1,253 @@
+package com.tcon.auth_user_service.user.service;
+
+import com.tcon.auth_user_service.event.UserCacheInvalidatedEvent;
+import com.tcon.auth_user_service.user.dto.UserSuggestionDto;
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import com.tcon.auth_user_service.user.repository.UserRepository;
+import com.tcon.auth_user_service.user.repository.UserSearchKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveCallback;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory typeahead index (app.user-search.in-memory-index.enabled), answering
+ * prefix queries without a Mongo round trip.
+ *
+ * Search keys map to suggestions in a sorted {@link ConcurrentSkipListMap}, so a prefix lookup is
+ * a range scan. The index is built in the background at startup and rebuilt periodically; in
+ * between it follows users saved on this node and every {@link UserCacheInvalidatedEvent}, which
+ * all replicas receive. Users created on another node appear here at the next rebuild.
+ * Until the first build completes, {@link #search} returns null and callers query Mongo.
+ * Like the Mongo query, it only holds ACTIVE users.
+ *
+ * Memory grows with the user count (a few hundred bytes per user), so it is off by default.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserTypeaheadIndex implements AfterSaveCallback<User> {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // Bounds a lookup whose prefix matches many users that the other filters then reject
+    private static final int MAX_SCANNED_ENTRIES = 10_000;
+
+    // Resolved on use: as an entity callback this bean is created with the Mongo converter,
+    // before the repositories that depend on it
+    private final ObjectProvider<UserRepository> userRepositoryProvider;
+
+    @Value("${app.user-search.in-memory-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.user-search.in-memory-index.rebuild-interval:PT15M}")
+    private Duration rebuildInterval;
+
+    private volatile Index current;
+    private volatile Index rebuilding;
+
+    private ScheduledExecutorService rebuildScheduler;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("UserTypeaheadIndex disabled, typeahead is served from Mongo");
+            return;
+        }
+
+        this.rebuildScheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("user-typeahead-rebuild-"));
+        rebuildScheduler.scheduleWithFixedDelay(this::rebuild,
+                0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("✅ UserTypeaheadIndex enabled (rebuild interval: {})", rebuildInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildScheduler != null) {
+            rebuildScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * @param prefixes normalized query tokens (see {@link UserSearchKeys#queryTokens})
+     * @return users having a key for every prefix, or null if the index is not available
+     */
+    public List<UserSuggestionDto> search(List<String> prefixes, UserRole role, int limit) {
+        Index index = current;
+        if (index == null) {
+            return null;
+        }
+
+        // Scan the most selective prefix; check the others against each candidate's keys.
+        // The map is in UTF-16 order, not Mongo's code point order, so the scan stops at the first
+        // entry without the prefix rather than at UserSearchKeys.prefixEnd
+        String scanned = prefixes.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Map<String, UserSuggestionDto> matches = new LinkedHashMap<>();
+        int visited = 0;
+        for (Map.Entry<String, UserSuggestionDto> entry : index.byKey.tailMap(scanned).entrySet()) {
+            if (!entry.getKey().startsWith(scanned)
+                    || matches.size() >= limit || ++visited > MAX_SCANNED_ENTRIES) {
+                break;
+            }
+            UserSuggestionDto suggestion = entry.getValue();
+            if ((role == null || role == suggestion.getRole())
+                    && !matches.containsKey(suggestion.getId())
+                    && matchesAll(index.keysByUser.get(suggestion.getId()), prefixes)) {
+                matches.put(suggestion.getId(), suggestion);
+            }
+        }
+        return List.copyOf(matches.values());
+    }
+
+    @Override
+    public User onAfterSave(User user, Document document, String collection) {
+        if (enabled && user.getId() != null) {
+            apply(user);
+        }
+        return user;
+    }
+
+    @EventListener
+    public void onUserCacheInvalidated(UserCacheInvalidatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<User> users = userRepositoryProvider.getObject().findListedByIds(List.of(event.getUserId()));
+            if (users.isEmpty()) {
+                // Hard-deleted
+                forEachIndex(index -> index.remove(event.getUserId()));
+            } else {
+                users.forEach(this::apply);
+            }
+        } catch (Exception e) {
+            // Corrected by the next rebuild
+            log.warn("⚠️ Typeahead index not updated for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    private void apply(User user) {
+        forEachIndex(index -> index.put(user, true));
+    }
+
+    private void forEachIndex(Consumer<Index> change) {
+        // A rebuild in progress may already have read this user's old state. Read rebuilding
+        // before current: a rebuild finishing in between has already made its index current
+        Index next = rebuilding;
+        Index index = current;
+        if (index != null) {
+            change.accept(index);
+        }
+        if (next != null && next != index) {
+            change.accept(next);
+        }
+    }
+
+    void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        Index fresh = new Index();
+        rebuilding = fresh;
+        try (Stream<User> users = userRepositoryProvider.getObject()
+                .streamUsers(null, UserStatus.ACTIVE, null, null, REBUILD_BATCH_SIZE)) {
+            // Entries already updated during the rebuild are newer than what the cursor returns
+            users.forEach(user -> fresh.put(user, false));
+            current = fresh;
+            log.info("🔍 Typeahead index rebuilt: {} users in {} ms",
+                    fresh.keysByUser.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            // Keep serving the previous index (or Mongo, before the first build)
+            log.warn("⚠️ Typeahead index rebuild failed: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private static boolean matchesAll(List<String> keys, List<String> prefixes) {
+        if (keys == null) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (keys.stream().noneMatch(key -> key.startsWith(prefix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Index {
+
+        /**
+         * "key\0userId" -> suggestion: sorted by key, and unique per user when users share a key
+         */
+        private final ConcurrentSkipListMap<String, UserSuggestionDto> byKey = new ConcurrentSkipListMap<>();
+
+        /**
+         * userId -> the user's keys, to drop them when the user changes. An empty list marks a user
+         * that left the index, so a rebuild in progress does not add them back from older data.
+         */
+        private final ConcurrentHashMap<String, List<String>> keysByUser = new ConcurrentHashMap<>();
+
+        /**
+         * @param replace false to keep an entry that is already present
+         */
+        void put(User user, boolean replace) {
+            if (user.getStatus() != UserStatus.ACTIVE) {
+                if (replace) {
+                    remove(user.getId());
+                }
+                return;
+            }
+
+            List<String> keys = UserSearchKeys.of(user);
+            UserSuggestionDto suggestion = UserSuggestionDto.builder()
+                    .id(user.getId())
+                    .firstName(user.getFirstName())
+                    .lastName(user.getLastName())
+                    .email(user.getEmail())
+                    .role(user.getRole())
+                    .profilePictureUrl(user.getProfilePictureUrl())
+                    .build();
+
+            // compute() serializes changes to the same user
+            keysByUser.compute(user.getId(), (id, previous) -> {
+                if (previous != null && !replace) {
+                    return previous;
+                }
+                if (previous != null) {
+                    previous.forEach(key -> byKey.remove(key + '\0' + id));
+                }
+                keys.forEach(key -> byKey.put(key + '\0' + id, suggestion));
+                return keys;
+            });
+        }
+
+        void remove(String userId) {
+            keysByUser.compute(userId, (id, previous) -> {
+                if (previous != null) {
+                    previous.forEach(key -> byKey.remove(key + '\0' + id));
+                }
+                return List.of();
+            });
+        }
+    }
+}
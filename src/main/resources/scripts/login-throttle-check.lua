@@ -0,0 +1,19 @@
+-- Is a login attempt allowed right now?
+-- KEYS[1] account failure window (ZSET), KEYS[2] source IP failure window (ZSET), KEYS[3] account lock
+-- ARGV[1] now (ms), ARGV[2] window (ms), ARGV[3] max failures per IP in the window
+-- Returns 0 when allowed, otherwise the number of ms until the next attempt may succeed.
+local now = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+
+local lockTtl = redis.call('PTTL', KEYS[3])
+if lockTtl > 0 then
+    return lockTtl
+end
+
+redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now - window)
+if redis.call('ZCARD', KEYS[2]) >= tonumber(ARGV[3]) then
+    local oldest = redis.call('ZRANGE', KEYS[2], 0, 0, 'WITHSCORES')
+    return math.max(1, tonumber(oldest[2]) + window - now)
+end
+
+return 0
@@ -0,0 +1,21 @@
+-- Record a failed login in the account and source IP windows; lock the account when it crosses the limit.
+-- KEYS[1] account failure window (ZSET), KEYS[2] source IP failure window (ZSET), KEYS[3] account lock
+-- ARGV[1] now (ms), ARGV[2] window (ms), ARGV[3] max failures per account, ARGV[4] lock duration (ms),
+-- ARGV[5] unique member for this attempt
+-- Returns {failures in the account window, 1 if this call created the lock else 0}.
+local now = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+
+for i = 1, 2 do
+    redis.call('ZADD', KEYS[i], now, ARGV[5])
+    redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - window)
+    redis.call('PEXPIRE', KEYS[i], window)
+end
+
+local failures = redis.call('ZCARD', KEYS[1])
+if failures >= tonumber(ARGV[3]) and redis.call('SET', KEYS[3], now, 'PX', ARGV[4], 'NX') then
+    redis.call('DEL', KEYS[1])
+    return {failures, 1}
+end
+
+return {failures, 0}
@@ -0,0 +1,12 @@
+-- Fixed one-second window shared by every replica.
+-- KEYS[1] ratelimit:global:<endpoint>:<epochSecond>
+-- ARGV[1] requests allowed per second
+-- Returns 1 if the request fits in this second's budget, 0 otherwise.
+local count = redis.call('INCR', KEYS[1])
+if count == 1 then
+    redis.call('PEXPIRE', KEYS[1], 2000)
+end
+if count > tonumber(ARGV[1]) then
+    return 0
+end
+return 1
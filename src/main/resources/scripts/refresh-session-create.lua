@@ -0,0 +1,34 @@
+-- Create (or replace) the refresh session for one device, stamped with the user's current
+-- session generation and profile version, and the current permissions version of its role.
+-- KEYS[1] rs:<userId>:<deviceId> hash, KEYS[2] rs:gen:<userId>, KEYS[3] rs:ver:<userId>,
+-- KEYS[4] rs:role-ver hash role -> permissions version
+-- ARGV[1] ttl (ms), ARGV[2] initial rotation, ARGV[3] when re-creating a stale session, the
+-- generation it was rotated under ('' for a new session), ARGV[4..n] field/value pairs of the session
+-- Returns 1, or 0 if the stale session was revoked, ended or rotated again since it was rotated.
+local ttl = tonumber(ARGV[1])
+local generation = redis.call('GET', KEYS[2]) or '0'
+local version = redis.call('GET', KEYS[3]) or '0'
+
+if ARGV[3] ~= '' then
+    local session = redis.call('HMGET', KEYS[1], 'gen', 'rot')
+    if generation ~= ARGV[3] or session[1] ~= ARGV[3] or session[2] ~= ARGV[2] then
+        return 0
+    end
+end
+
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], 'gen', generation, 'ver', version, 'rot', ARGV[2], unpack(ARGV, 4))
+local role = redis.call('HGET', KEYS[1], 'role')
+if role then
+    redis.call('HSET', KEYS[1], 'rver', redis.call('HGET', KEYS[4], role) or '0')
+end
+redis.call('PEXPIRE', KEYS[1], ttl)
+
+-- Generation and version must outlive every session stamped with them
+for i = 2, 3 do
+    local remaining = redis.call('PTTL', KEYS[i])
+    if remaining > 0 and remaining < ttl then
+        redis.call('PEXPIRE', KEYS[i], ttl)
+    end
+end
+return 1
@@ -0,0 +1,45 @@
+-- Rotate a device's refresh session: the presented rotation must be the current one.
+-- KEYS[1] rs:<userId>:<deviceId> hash, KEYS[2] rs:gen:<userId>, KEYS[3] rs:ver:<userId>,
+-- KEYS[4] rs:role-ver hash role -> permissions version
+-- ARGV[1] rotation from the presented refresh token, ARGV[2] ttl (ms)
+-- Returns the session as field/value pairs (rot already incremented), or
+-- {'error', 'missing' | 'revoked' | 'reused'}. A stale session (profile or role permissions
+-- changed since it was created) is left in place for the caller to re-create from the user document, with rot already
+-- incremented so the presented token cannot be used twice: {'error', 'stale', 'gen', g, 'rot', r}.
+local ttl = tonumber(ARGV[2])
+
+local session = redis.call('HMGET', KEYS[1], 'gen', 'rot', 'ver', 'role', 'rver')
+if not session[1] then
+    return {'error', 'missing'}
+end
+
+if session[1] ~= (redis.call('GET', KEYS[2]) or '0') then
+    redis.call('DEL', KEYS[1])
+    return {'error', 'revoked'}
+end
+
+if session[2] ~= ARGV[1] then
+    -- An already-rotated token came back: assume it leaked and end the session
+    redis.call('DEL', KEYS[1])
+    return {'error', 'reused'}
+end
+
+local stale = (session[3] or '0') ~= (redis.call('GET', KEYS[3]) or '0')
+if not stale and session[4] then
+    stale = (session[5] or '0') ~= (redis.call('HGET', KEYS[4], session[4]) or '0')
+end
+
+if stale then
+    local rot = redis.call('HINCRBY', KEYS[1], 'rot', 1)
+    return {'error', 'stale', 'gen', session[1], 'rot', tostring(rot)}
+end
+
+redis.call('HINCRBY', KEYS[1], 'rot', 1)
+redis.call('PEXPIRE', KEYS[1], ttl)
+for i = 2, 3 do
+    local remaining = redis.call('PTTL', KEYS[i])
+    if remaining > 0 and remaining < ttl then
+        redis.call('PEXPIRE', KEYS[i], ttl)
+    end
+end
+return redis.call('HGETALL', KEYS[1])
@@ -0,0 +1,9 @@
+-- Store a delivered 2FA code in the user's challenge hash.
+-- KEYS[1] 2fa:<userId> hash {code, attempts, totp_last}
+-- ARGV[1] code, ARGV[2] ttl (ms)
+-- The attempt counter and TOTP replay marker are kept; the TTL is only ever extended.
+redis.call('HSET', KEYS[1], 'code', ARGV[1])
+if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 1
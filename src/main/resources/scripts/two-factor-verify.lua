@@ -0,0 +1,46 @@
+-- Verify a 2FA code in one round-trip: attempt limit, compare-and-delete of the delivered code,
+-- and TOTP replay protection, all against the user's challenge hash.
+-- KEYS[1] 2fa:<userId> hash {code, attempts, totp_last}
+-- ARGV[1] submitted code
+-- ARGV[2] TOTP time step the code matched (computed by the caller), or -1 if it matched none
+-- ARGV[3] max failed attempts, ARGV[4] ttl (ms) applied when the hash is created or must outlive a TOTP window
+-- Returns 1 (delivered code accepted), 2 (TOTP accepted), 0 (rejected),
+-- or a negative number of ms until attempts are allowed again.
+local key = KEYS[1]
+local ttl = tonumber(ARGV[4])
+
+local attempts = tonumber(redis.call('HGET', key, 'attempts') or '0')
+if attempts >= tonumber(ARGV[3]) then
+    return -math.max(1, redis.call('PTTL', key))
+end
+
+local step = tonumber(ARGV[2])
+local last = tonumber(redis.call('HGET', key, 'totp_last') or '-1')
+
+local stored = redis.call('HGET', key, 'code')
+if stored and stored == ARGV[1] then
+    redis.call('HDEL', key, 'code', 'attempts')
+    -- The delivered code is the current TOTP: burn its step so it cannot be replayed as a TOTP
+    if step > last then
+        redis.call('HSET', key, 'totp_last', step)
+        if redis.call('PTTL', key) < ttl then
+            redis.call('PEXPIRE', key, ttl)
+        end
+    end
+    return 1
+end
+
+if step >= 0 and step > last then
+    redis.call('HSET', key, 'totp_last', step)
+    redis.call('HDEL', key, 'code', 'attempts')
+    if redis.call('PTTL', key) < ttl then
+        redis.call('PEXPIRE', key, ttl)
+    end
+    return 2
+end
+
+redis.call('HINCRBY', key, 'attempts', 1)
+if redis.call('PTTL', key) < 0 then
+    redis.call('PEXPIRE', key, ttl)
+end
+return 0
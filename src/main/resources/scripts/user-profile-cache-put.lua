@@ -0,0 +1,9 @@
+-- Write a user profile to the shared cache unless it was invalidated while it was being loaded.
+-- KEYS[1] user:profile:<userId>, KEYS[2] user:profile:ver:<userId> (bumped by every invalidation)
+-- ARGV[1] version read before loading, ARGV[2] ttl (ms), ARGV[3] serialized profile
+-- Returns 1 if written, 0 if the loaded profile may predate the last change.
+if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[2])
+return 1
@@ -0,0 +1,122 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.auth.security.LoginThrottleService.FailureOutcome;
+import com.tcon.auth_user_service.exception.RateLimitExceededException;
+import com.tcon.auth_user_service.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * login-throttle-check.lua and login-throttle-record-failure.lua, through {@link LoginThrottleService}
+ */
+class LoginThrottleServiceTest extends RedisScriptTestSupport {
+
+	private static final String EMAIL = "ada@example.org";
+	private static final String IP = "203.0.113.7";
+	private static final int MAX_IP_FAILURES = 8;
+
+	@Test
+	void allowsAttemptsWithoutFailures() {
+		LoginThrottleService throttle = throttle(Duration.ofMinutes(15));
+
+		assertThatCode(() -> throttle.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void locksTheAccountOnTheFailureThatReachesTheLimit() {
+		LoginThrottleService throttle = throttle(Duration.ofMinutes(15));
+		for (int i = 1; i < User.MAX_FAILED_ATTEMPTS; i++) {
+			assertThat(throttle.recordFailure(EMAIL, IP)).isEqualTo(FailureOutcome.COUNTED);
+		}
+		throttle.checkAllowed(EMAIL, IP);
+
+		assertThat(throttle.recordFailure(EMAIL, IP)).isEqualTo(FailureOutcome.LOCKED);
+		assertThatThrownBy(() -> throttle.checkAllowed(EMAIL, IP))
+				.isInstanceOfSatisfying(RateLimitExceededException.class, e -> assertThat(e.getRetryAfterSeconds())
+						.isBetween(User.LOCK_DURATION.toSeconds() - 5, User.LOCK_DURATION.toSeconds()));
+		// The lock applies from any address, and the account is matched case-insensitively
+		assertThatThrownBy(() -> throttle.checkAllowed(" Ada@Example.org", "198.51.100.1"))
+				.isInstanceOf(RateLimitExceededException.class);
+	}
+
+	@Test
+	void reportsTheLockOnlyOnce() {
+		LoginThrottleService throttle = throttle(Duration.ofMinutes(15));
+		for (int i = 0; i < User.MAX_FAILED_ATTEMPTS; i++) {
+			throttle.recordFailure(EMAIL, IP);
+		}
+
+		for (int i = 0; i < User.MAX_FAILED_ATTEMPTS; i++) {
+			assertThat(throttle.recordFailure(EMAIL, IP)).isEqualTo(FailureOutcome.COUNTED);
+		}
+	}
+
+	@Test
+	void successResetsTheAccountWindow() {
+		LoginThrottleService throttle = throttle(Duration.ofMinutes(15));
+		for (int i = 1; i < User.MAX_FAILED_ATTEMPTS; i++) {
+			throttle.recordFailure(EMAIL, IP);
+		}
+
+		throttle.recordSuccess(EMAIL);
+
+		assertThat(throttle.recordFailure(EMAIL, IP)).isEqualTo(FailureOutcome.COUNTED);
+	}
+
+	@Test
+	void clearAccountLiftsTheLock() {
+		LoginThrottleService throttle = throttle(Duration.ofMinutes(15));
+		for (int i = 0; i < User.MAX_FAILED_ATTEMPTS; i++) {
+			throttle.recordFailure(EMAIL, IP);
+		}
+
+		throttle.clearAccount(EMAIL);
+
+		assertThatCode(() -> throttle.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void limitsFailuresPerSourceIpAcrossAccounts() {
+		LoginThrottleService throttle = throttle(Duration.ofMinutes(15));
+		for (int i = 0; i < MAX_IP_FAILURES; i++) {
+			throttle.recordFailure("user" + i + "@example.org", IP);
+		}
+
+		assertThatThrownBy(() -> throttle.checkAllowed(EMAIL, IP))
+				.isInstanceOfSatisfying(RateLimitExceededException.class, e -> assertThat(e.getRetryAfterSeconds())
+						.isBetween(Duration.ofMinutes(15).toSeconds() - 5, Duration.ofMinutes(15).toSeconds()));
+		assertThatCode(() -> throttle.checkAllowed(EMAIL, "198.51.100.1")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void failuresOutsideTheWindowAreForgotten() throws InterruptedException {
+		LoginThrottleService throttle = throttle(Duration.ofMillis(300));
+		for (int i = 0; i < MAX_IP_FAILURES; i++) {
+			throttle.recordFailure("user" + i + "@example.org", IP);
+		}
+		for (int i = 1; i < User.MAX_FAILED_ATTEMPTS; i++) {
+			throttle.recordFailure(EMAIL, "198.51.100.1");
+		}
+
+		Thread.sleep(400);
+
+		assertThatCode(() -> throttle.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+		assertThat(throttle.recordFailure(EMAIL, "198.51.100.1")).isEqualTo(FailureOutcome.COUNTED);
+	}
+
+	private static LoginThrottleService throttle(Duration window) {
+		LoginThrottleService throttle = new LoginThrottleService(redis, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(throttle, "enabled", true);
+		ReflectionTestUtils.setField(throttle, "window", window);
+		ReflectionTestUtils.setField(throttle, "maxIpFailures", MAX_IP_FAILURES);
+		throttle.init();
+		return throttle;
+	}
+}
@@ -0,0 +1,47 @@
+package com.tcon.auth_user_service.auth.security;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Runs the Lua scripts of the Redis-backed stores against a real Redis in a container.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+abstract class RedisScriptTestSupport {
+
+	@Container
+	static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+			.withExposedPorts(6379);
+
+	static LettuceConnectionFactory connectionFactory;
+	static StringRedisTemplate redis;
+
+	@BeforeAll
+	static void connect() {
+		connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redis = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	static void disconnect() {
+		connectionFactory.destroy();
+	}
+
+	@BeforeEach
+	void flushRedis() {
+		try (RedisConnection connection = connectionFactory.getConnection()) {
+			connection.serverCommands().flushAll();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package com.tcon.auth_user_service.auth.security;
+
+import com.tcon.auth_user_service.exception.InvalidCredentialsException;
+import com.tcon.auth_user_service.user.entity.User;
+import com.tcon.auth_user_service.user.entity.UserRole;
+import com.tcon.auth_user_service.user.entity.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * refresh-session-create.lua and refresh-session-rotate.lua, through {@link RefreshSessionStore}
+ */
+class RefreshSessionStoreTest extends RedisScriptTestSupport {
+
+	private static final String USER_ID = "user-1";
+	private static final String DEVICE_ID = "device-1";
+
+	private RefreshSessionStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new RefreshSessionStore(redis);
+		ReflectionTestUtils.setField(store, "refreshTokenValidityInMs", 60_000L);
+		store.init();
+	}
+
+	@Test
+	void rotateServesTheSessionAndAdvancesTheRotation() {
+		store.create(user(UserRole.ADMIN, "Ada"), DEVICE_ID, List.of("users:read", "users:write"));
+
+		RefreshSession session = store.rotate(USER_ID, DEVICE_ID, 0);
+
+		assertThat(session.isStale()).isFalse();
+		assertThat(session.getRotation()).isEqualTo(1);
+		assertThat(session.getEmail()).isEqualTo("ada@example.org");
+		assertThat(session.getFirstName()).isEqualTo("Ada");
+		assertThat(session.getRole()).isEqualTo(UserRole.ADMIN);
+		assertThat(session.getStatus()).isEqualTo(UserStatus.ACTIVE);
+		assertThat(session.getEmailVerified()).isTrue();
+		assertThat(session.getPermissions()).containsExactly("users:read", "users:write");
+		assertThat(store.rotate(USER_ID, DEVICE_ID, 1).getRotation()).isEqualTo(2);
+	}
+
+	@Test
+	void rotateRejectsAMissingSession() {
+		assertThatThrownBy(() -> store.rotate(USER_ID, DEVICE_ID, 0))
+				.isInstanceOf(InvalidCredentialsException.class);
+	}
+
+	@Test
+	void rotateRejectsAndDeletesARevokedSession() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.revokeAll(USER_ID);
+
+		assertThatThrownBy(() -> store.rotate(USER_ID, DEVICE_ID, 0))
+				.isInstanceOf(InvalidCredentialsException.class);
+		assertThat(redis.hasKey(sessionKey())).isFalse();
+	}
+
+	@Test
+	void reusedRotationEndsTheSession() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.rotate(USER_ID, DEVICE_ID, 0);
+
+		assertThatThrownBy(() -> store.rotate(USER_ID, DEVICE_ID, 0))
+				.isInstanceOf(InvalidCredentialsException.class);
+		assertThat(redis.hasKey(sessionKey())).isFalse();
+		// The legitimate holder of rotation 1 is signed out too
+		assertThatThrownBy(() -> store.rotate(USER_ID, DEVICE_ID, 1))
+				.isInstanceOf(InvalidCredentialsException.class);
+	}
+
+	@Test
+	void profileChangeMakesTheSessionStaleUntilRecreated() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.markProfileChanged(USER_ID);
+
+		RefreshSession stale = store.rotate(USER_ID, DEVICE_ID, 0);
+		assertThat(stale.isStale()).isTrue();
+		assertThat(stale.getRotation()).isEqualTo(1);
+		assertThat(stale.getGeneration()).isEqualTo("0");
+
+		RefreshSession recreated = store.recreate(user(UserRole.STUDENT, "Adeline"), stale, List.of());
+		assertThat(recreated.getRotation()).isEqualTo(1);
+		assertThat(recreated.getFirstName()).isEqualTo("Adeline");
+
+		RefreshSession rotated = store.rotate(USER_ID, DEVICE_ID, 1);
+		assertThat(rotated.isStale()).isFalse();
+		assertThat(rotated.getRotation()).isEqualTo(2);
+		assertThat(rotated.getFirstName()).isEqualTo("Adeline");
+	}
+
+	@Test
+	void staleRotationCannotBeReplayed() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.markProfileChanged(USER_ID);
+		store.rotate(USER_ID, DEVICE_ID, 0);
+
+		assertThatThrownBy(() -> store.rotate(USER_ID, DEVICE_ID, 0))
+				.isInstanceOf(InvalidCredentialsException.class);
+	}
+
+	@Test
+	void recreateLosesToAConcurrentRotation() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.markProfileChanged(USER_ID);
+		RefreshSession first = store.rotate(USER_ID, DEVICE_ID, 0);
+		RefreshSession second = store.rotate(USER_ID, DEVICE_ID, 1);
+		assertThat(second.isStale()).isTrue();
+
+		assertThatThrownBy(() -> store.recreate(user(UserRole.STUDENT, "Ada"), first, List.of()))
+				.isInstanceOf(InvalidCredentialsException.class);
+		assertThat(store.recreate(user(UserRole.STUDENT, "Ada"), second, List.of()).getRotation()).isEqualTo(2);
+	}
+
+	@Test
+	void recreateLosesToARevocation() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.markProfileChanged(USER_ID);
+		RefreshSession stale = store.rotate(USER_ID, DEVICE_ID, 0);
+		store.revokeAll(USER_ID);
+
+		assertThatThrownBy(() -> store.recreate(user(UserRole.STUDENT, "Ada"), stale, List.of()))
+				.isInstanceOf(InvalidCredentialsException.class);
+	}
+
+	@Test
+	void recreateLosesToALogout() {
+		store.create(user(UserRole.STUDENT, "Ada"), DEVICE_ID, List.of());
+		store.markProfileChanged(USER_ID);
+		RefreshSession stale = store.rotate(USER_ID, DEVICE_ID, 0);
+		store.revoke(USER_ID, DEVICE_ID);
+
+		assertThatThrownBy(() -> store.recreate(user(UserRole.STUDENT, "Ada"), stale, List.of()))
+				.isInstanceOf(InvalidCredentialsException.class);
+	}
+
+	@Test
+	void roleChangeMakesOnlySessionsOfThatRoleStale() {
+		store.create(user(UserRole.ADMIN, "Ada"), DEVICE_ID, List.of("users:read"));
+		store.markRoleChanged(UserRole.TEACHER.name());
+		assertThat(store.rotate(USER_ID, DEVICE_ID, 0).isStale()).isFalse();
+
+		store.markRoleChanged(UserRole.ADMIN.name());
+		RefreshSession stale = store.rotate(USER_ID, DEVICE_ID, 1);
+		assertThat(stale.isStale()).isTrue();
+
+		store.recreate(user(UserRole.ADMIN, "Ada"), stale, List.of("users:read", "users:write"));
+		RefreshSession rotated = store.rotate(USER_ID, DEVICE_ID, 2);
+		assertThat(rotated.isStale()).isFalse();
+		assertThat(rotated.getPermissions()).containsExactly("users:read", "users:write");
+	}
+
+	private static User user(UserRole role, String firstName) {
+		return User.builder()
+				.id(USER_ID)
+				.email(firstName.toLowerCase() + "@example.org")
+				.firstName(firstName)
+				.lastName("Lovelace")
+				.role(role)
+				.status(UserStatus.ACTIVE)
+				.emailVerified(true)
+				.build();
+	}
+
+	private static String sessionKey() {
+		return "rs:" + USER_ID + ":" + DEVICE_ID;
+	}
+}
@@ -0,0 +1,94 @@
+package com.tcon.auth_user_service.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RevocationBloomFilterTest {
+
+	@Test
+	void sizesBitsAndHashesForTheTargetRate() {
+		// m = -n ln p / (ln 2)^2 rounded up to whole 64-bit words, k = m / n ln 2
+		RevocationBloomFilter filter = new RevocationBloomFilter(100_000, 0.001);
+		assertThat(filter.getBitCount()).isEqualTo(1_437_760);
+		assertThat(filter.getHashCount()).isEqualTo(10);
+
+		RevocationBloomFilter small = new RevocationBloomFilter(1_000, 0.01);
+		assertThat(small.getBitCount()).isEqualTo(9_600);
+		assertThat(small.getHashCount()).isEqualTo(7);
+	}
+
+	@Test
+	void rejectsInvalidSizing() {
+		assertThatThrownBy(() -> new RevocationBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new RevocationBloomFilter(1_000, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new RevocationBloomFilter(1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void neverReportsAnAddedElementAsAbsent() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(100_000, 0.01);
+		for (int i = 0; i < 100_000; i++) {
+			filter.put("t:" + i);
+		}
+
+		for (int i = 0; i < 100_000; i++) {
+			assertThat(filter.mightContain("t:" + i)).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTargetAtCapacity() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(100_000, 0.01);
+		for (int i = 0; i < 100_000; i++) {
+			filter.put("t:" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("u:" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+	}
+
+	@Test
+	void concurrentPutsAreNotLost() throws InterruptedException {
+		int threads = 8;
+		int perThread = 10_000;
+		RevocationBloomFilter filter = new RevocationBloomFilter(threads * perThread, 0.01);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < perThread; i++) {
+					filter.put("t:" + thread + ":" + i);
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		for (int t = 0; t < threads; t++) {
+			for (int i = 0; i < perThread; i++) {
+				assertThat(filter.mightContain("t:" + t + ":" + i)).isTrue();
+			}
+		}
+	}
+}
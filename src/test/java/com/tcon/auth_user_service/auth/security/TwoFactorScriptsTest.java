@@ -0,0 +1,116 @@
+package com.tcon.auth_user_service.auth.security;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * two-factor-issue.lua and two-factor-verify.lua, with the TOTP step chosen by the test
+ */
+class TwoFactorScriptsTest extends RedisScriptTestSupport {
+
+	private static final String KEY = "2fa:user-1";
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long TTL_MS = 60_000;
+	private static final long NO_STEP = -1;
+
+	private static RedisScript<Long> issueScript;
+	private static RedisScript<Long> verifyScript;
+
+	@BeforeAll
+	static void loadScripts() {
+		issueScript = RedisScript.of(new ClassPathResource("scripts/two-factor-issue.lua"), Long.class);
+		verifyScript = RedisScript.of(new ClassPathResource("scripts/two-factor-verify.lua"), Long.class);
+	}
+
+	@Test
+	void storedCodeIsAcceptedOnceAndBurnsItsTotpStep() {
+		issue("123456");
+
+		assertThat(verify("123456", 100)).isEqualTo(1);
+		assertThat(redis.opsForHash().get(KEY, "code")).isNull();
+		assertThat(redis.opsForHash().get(KEY, "totp_last")).isEqualTo("100");
+		// Neither as the stored code nor as the TOTP of the same step
+		assertThat(verify("123456", 100)).isZero();
+	}
+
+	@Test
+	void storedCodeIsAcceptedWhenItMatchesNoTotpStep() {
+		issue("123456");
+
+		assertThat(verify("123456", NO_STEP)).isEqualTo(1);
+		assertThat(redis.opsForHash().get(KEY, "totp_last")).isNull();
+	}
+
+	@Test
+	void totpIsAcceptedOncePerStep() {
+		assertThat(verify("654321", 100)).isEqualTo(2);
+		assertThat(redis.getExpire(KEY)).isPositive();
+
+		assertThat(verify("654321", 100)).isZero();
+		assertThat(verify("654321", 99)).isZero();
+		assertThat(verify("654321", 101)).isEqualTo(2);
+	}
+
+	@Test
+	void wrongCodeIsRejectedAndCounted() {
+		issue("123456");
+
+		assertThat(verify("111111", NO_STEP)).isZero();
+		assertThat(redis.opsForHash().get(KEY, "attempts")).isEqualTo("1");
+		assertThat(redis.opsForHash().get(KEY, "code")).isEqualTo("123456");
+	}
+
+	@Test
+	void failedAttemptsExpireWithoutAnIssuedCode() {
+		assertThat(verify("111111", NO_STEP)).isZero();
+
+		assertThat(redis.getExpire(KEY)).isPositive();
+	}
+
+	@Test
+	void acceptedCodeResetsTheAttemptCounter() {
+		verify("111111", NO_STEP);
+		verify("111111", NO_STEP);
+
+		assertThat(verify("654321", 100)).isEqualTo(2);
+		assertThat(redis.opsForHash().get(KEY, "attempts")).isNull();
+	}
+
+	@Test
+	void tooManyFailuresLockEvenTheRightCode() {
+		issue("123456");
+		for (int i = 0; i < MAX_ATTEMPTS; i++) {
+			assertThat(verify("111111", NO_STEP)).isZero();
+		}
+
+		assertThat(verify("123456", 100)).isNegative().isGreaterThanOrEqualTo(-TTL_MS);
+		assertThat(verify("654321", 101)).isNegative();
+		assertThat(redis.opsForHash().get(KEY, "code")).isEqualTo("123456");
+	}
+
+	@Test
+	void reissuingKeepsTheAttemptCounterAndReplayMarker() {
+		assertThat(verify("654321", 100)).isEqualTo(2);
+		verify("111111", NO_STEP);
+
+		issue("123456");
+
+		assertThat(redis.opsForHash().get(KEY, "attempts")).isEqualTo("1");
+		assertThat(redis.opsForHash().get(KEY, "totp_last")).isEqualTo("100");
+	}
+
+	private static void issue(String code) {
+		redis.execute(issueScript, List.of(KEY), code, String.valueOf(TTL_MS));
+	}
+
+	private static Long verify(String code, long step) {
+		return redis.execute(verifyScript, List.of(KEY),
+				code, String.valueOf(step), String.valueOf(MAX_ATTEMPTS), String.valueOf(TTL_MS));
+	}
+}
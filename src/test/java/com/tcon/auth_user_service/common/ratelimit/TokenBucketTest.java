@@ -0,0 +1,86 @@
+package com.tcon.auth_user_service.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+	private static final int CAPACITY = 3;
+	private static final long INTERVAL = 1_000;
+
+	@Test
+	void allowsABurstOfCapacityThenReportsTheWait() {
+		TokenBucket bucket = new TokenBucket(CAPACITY, INTERVAL, 0);
+
+		for (int i = 0; i < CAPACITY; i++) {
+			assertThat(bucket.tryAcquire(0)).isZero();
+		}
+		assertThat(bucket.tryAcquire(0)).isEqualTo(INTERVAL);
+		// A rejected request does not take a token
+		assertThat(bucket.tryAcquire(0)).isEqualTo(INTERVAL);
+		assertThat(bucket.tryAcquire(400)).isEqualTo(600);
+	}
+
+	@Test
+	void refillsOneTokenPerInterval() {
+		TokenBucket bucket = new TokenBucket(CAPACITY, INTERVAL, 0);
+		for (int i = 0; i < CAPACITY; i++) {
+			bucket.tryAcquire(0);
+		}
+
+		assertThat(bucket.tryAcquire(INTERVAL)).isZero();
+		assertThat(bucket.tryAcquire(INTERVAL)).isEqualTo(INTERVAL);
+		assertThat(bucket.tryAcquire(3 * INTERVAL)).isZero();
+		assertThat(bucket.tryAcquire(3 * INTERVAL)).isZero();
+		assertThat(bucket.tryAcquire(3 * INTERVAL)).isEqualTo(INTERVAL);
+	}
+
+	@Test
+	void idleTimeRefillsNoMoreThanCapacity() {
+		TokenBucket bucket = new TokenBucket(CAPACITY, INTERVAL, 0);
+		long later = 1_000 * INTERVAL;
+
+		for (int i = 0; i < CAPACITY; i++) {
+			assertThat(bucket.tryAcquire(later)).isZero();
+		}
+		assertThat(bucket.tryAcquire(later)).isEqualTo(INTERVAL);
+	}
+
+	@Test
+	void concurrentCallersShareTheBurst() throws InterruptedException {
+		int threads = 8;
+		int capacity = 1_000;
+		TokenBucket bucket = new TokenBucket(capacity, INTERVAL, 0);
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		for (int t = 0; t < threads; t++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < capacity; i++) {
+					if (bucket.tryAcquire(0) == 0) {
+						accepted.incrementAndGet();
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(accepted).hasValue(capacity);
+	}
+}
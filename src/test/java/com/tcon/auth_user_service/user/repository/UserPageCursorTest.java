@@ -0,0 +1,71 @@
+package com.tcon.auth_user_service.user.repository;
+
+import com.tcon.auth_user_service.exception.ErrorResponse;
+import com.tcon.auth_user_service.exception.GlobalExceptionHandler;
+import com.tcon.auth_user_service.user.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchIllegalArgumentException;
+
+class UserPageCursorTest {
+
+	@Test
+	void roundTripsTheLastUserOfAPage() {
+		User user = User.builder()
+				.id("65f1c0ffee0000000000abcd")
+				.createdAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000))
+				.build();
+
+		UserPageCursor cursor = UserPageCursor.after(user);
+		String token = cursor.encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+		assertThat(UserPageCursor.decode(token)).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsUsersWithoutCreatedAt() {
+		UserPageCursor cursor = new UserPageCursor(null, "65f1c0ffee0000000000abcd");
+
+		UserPageCursor decoded = UserPageCursor.decode(cursor.encode());
+
+		assertThat(decoded.createdAt()).isNull();
+		assertThat(decoded.id()).isEqualTo("65f1c0ffee0000000000abcd");
+	}
+
+	@Test
+	void blankTokenMeansFirstPage() {
+		assertThat(UserPageCursor.decode(null)).isNull();
+		assertThat(UserPageCursor.decode(" ")).isNull();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "bm90LWEtZGF0ZXxhYmM", "MjAyNC0wMy0wMVQxMjozMHw"})
+	void rejectsMalformedTokens(String token) {
+		assertThatThrownBy(() -> UserPageCursor.decode(token))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor");
+	}
+
+	@Test
+	void malformedTokenIsABadRequest() {
+		String token = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("yesterday|abc".getBytes(StandardCharsets.UTF_8));
+		IllegalArgumentException invalid = catchIllegalArgumentException(() -> UserPageCursor.decode(token));
+
+		ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler().handleIllegalArgumentException(invalid);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(response.getBody().getMessage()).isEqualTo("Invalid cursor");
+	}
+}